@@ -0,0 +1,86 @@
+package com.matthew.test_project.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.matthew.test_project.dto.NoteDetailDto;
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.dto.NoteSliceDto;
+import com.matthew.test_project.model.NoteTag;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson encoding of the response bodies, with an {@link ObjectMapper} configured the way Spring Boot
+ * configures the application's. Compares a full {@code Page<NoteListDto>} with the count-free
+ * {@link NoteSliceDto} of the same rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class JsonEncodingBenchmark {
+
+    @Param({"20", "100"})
+    int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ObjectWriter pageWriter;
+    private ObjectWriter sliceWriter;
+    private ObjectWriter detailWriter;
+
+    private Page<NoteListDto> page;
+    private NoteSliceDto slice;
+    private NoteDetailDto detail;
+
+    @Setup
+    public void setUp() {
+        List<NoteListDto> rows = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < pageSize; i++) {
+            rows.add(new NoteListDto(UUID.randomUUID(), "Benchmark note " + i, now.minusMinutes(i)));
+        }
+        PageRequest pageable = PageRequest.of(3, pageSize, Sort.by(Sort.Direction.DESC, "createdDate"));
+        page = new PageImpl<>(rows, pageable, 10_000);
+        slice = new NoteSliceDto(rows, 3, pageSize, true, null);
+        detail = new NoteDetailDto(
+                "Benchmark note",
+                now,
+                NoteTexts.text(5_000, 42),
+                Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT),
+                3L,
+                now
+        );
+
+        pageWriter = objectMapper.writerFor(Page.class);
+        sliceWriter = objectMapper.writerFor(NoteSliceDto.class);
+        detailWriter = objectMapper.writerFor(NoteDetailDto.class);
+    }
+
+    @Benchmark
+    public byte[] listPage() throws Exception {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] listSlice() throws Exception {
+        return sliceWriter.writeValueAsBytes(slice);
+    }
+
+    @Benchmark
+    public byte[] noteDetail() throws Exception {
+        return detailWriter.writeValueAsBytes(detail);
+    }
+}
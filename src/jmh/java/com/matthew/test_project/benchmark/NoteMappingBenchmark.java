@@ -0,0 +1,64 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteDetailDto;
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.service.NoteMapper;
+import com.matthew.test_project.service.WordFrequencyCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NoteMapper} in both directions. {@code toNewNote} includes computing the stored word stats, which
+ * dominates for anything but tiny notes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class NoteMappingBenchmark {
+
+    @Param({"200", "5000"})
+    int textLength;
+
+    private final NoteMapper noteMapper = new NoteMapper();
+    private NoteCreateDto createDto;
+    private Note note;
+
+    @Setup
+    public void setUp() {
+        String text = NoteTexts.text(textLength, 42);
+
+        createDto = new NoteCreateDto();
+        createDto.setTitle("Benchmark note");
+        createDto.setText(text);
+        createDto.setTags(Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT));
+
+        note = Note.builder()
+                .id(UUID.randomUUID())
+                .title("Benchmark note")
+                .text(text)
+                .tags(Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT))
+                .createdDate(LocalDateTime.now())
+                .version(3L)
+                .wordStats(WordFrequencyCounter.frequencies(text))
+                .build();
+    }
+
+    @Benchmark
+    public NoteDetailDto toDetailDto() {
+        return noteMapper.toDetailDto(note);
+    }
+
+    @Benchmark
+    public Note toNewNote() {
+        return noteMapper.toNewNote(createDto);
+    }
+}
@@ -0,0 +1,54 @@
+package com.matthew.test_project.benchmark;
+
+import java.util.Random;
+
+/**
+ * Deterministic note bodies for the JMH benchmarks: words drawn from a Zipf-like distribution over a fixed
+ * vocabulary, mixed case, punctuation, digits and some Cyrillic, so hash-table sizes and word lengths look
+ * like real notes.
+ */
+final class NoteTexts {
+
+    private static final String[] VOCABULARY = vocabulary(5_000);
+    private static final String[] SEPARATORS = {" ", " ", " ", " ", ", ", ". ", "! ", "\n", " - ", "; "};
+
+    private NoteTexts() {
+    }
+
+    static String text(int length, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 32);
+        while (text.length() < length) {
+            String word = VOCABULARY[zipf(random, VOCABULARY.length)];
+            text.append(random.nextInt(10) == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : word);
+            text.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    // Rank r is picked with probability roughly proportional to 1 / r.
+    private static int zipf(Random random, int size) {
+        return (int) Math.min(size - 1, Math.floor(Math.pow(size + 1, random.nextDouble())) - 1);
+    }
+
+    private static String[] vocabulary(int size) {
+        Random random = new Random(7);
+        String latin = "abcdefghijklmnopqrstuvwxyz";
+        String cyrillic = "абвгдеёжзийклмнопрстуфхцчшщъыьэюя";
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            String alphabet = i % 10 == 9 ? cyrillic : latin;
+            int length = 2 + random.nextInt(9);
+            StringBuilder word = new StringBuilder(length);
+            for (int c = 0; c < length; c++) {
+                word.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            if (i % 50 == 49) {
+                word.append(i);
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+}
@@ -0,0 +1,70 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.service.WordFrequencyCounter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokenizing and counting one note, as done on create/update and by the word-stats endpoints for notes
+ * without stored stats. {@code legacyRegex} is the regex-and-stream implementation the counter replaced,
+ * kept as a baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class WordFrequencyBenchmark {
+
+    @Param({"200", "5000", "100000"})
+    int textLength;
+
+    private String text;
+    private WordFrequencyCounter counted;
+
+    @Setup
+    public void setUp() {
+        text = NoteTexts.text(textLength, 42);
+        counted = new WordFrequencyCounter().add(text);
+    }
+
+    @Benchmark
+    public Map<String, Long> frequencies() {
+        return WordFrequencyCounter.frequencies(text);
+    }
+
+    @Benchmark
+    public WordFrequencyCounter countOnly() {
+        return new WordFrequencyCounter().add(text);
+    }
+
+    @Benchmark
+    public Map<String, Long> top10() {
+        return counted.top(10);
+    }
+
+    @Benchmark
+    public Map<String, Long> legacyRegex() {
+        String cleaned = text.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-zа-яё0-9\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+
+        Map<String, Long> frequency = new HashMap<>();
+        for (String word : cleaned.split("\\s+")) {
+            frequency.merge(word, 1L, Long::sum);
+        }
+
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        frequency.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEachOrdered(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,34 @@
+package com.matthew.test_project.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Adaptive concurrency limiting under {@code notes.concurrency-limit}: requests to {@code /api/notes} are
+ * admitted against one of two limits that follow latency, and turned away with 503 once theirs is reached.
+ *
+ * @param retryAfter     sent as {@code Retry-After} with every 503, rounded up to whole seconds
+ * @param tolerance      how many times the lowest recent latency is still taken as no queueing; a limit
+ *                       only shrinks once latency goes beyond it
+ * @param baselineWindow number of requests after which that lowest latency is taken afresh
+ * @param expensive      corpus word stats, exports, bulk creates and listings filtered by tag
+ * @param cheap          every other note request, such as reading, creating or updating a single note
+ */
+@ConfigurationProperties("notes.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        boolean enabled,
+        @DefaultValue("1s") Duration retryAfter,
+        @DefaultValue("2.0") double tolerance,
+        @DefaultValue("600") int baselineWindow,
+        @DefaultValue Budget expensive,
+        @DefaultValue Budget cheap
+) {
+
+    public record Budget(
+            @DefaultValue("20") int initialLimit,
+            @DefaultValue("2") int minLimit,
+            @DefaultValue("200") int maxLimit
+    ) {}
+}
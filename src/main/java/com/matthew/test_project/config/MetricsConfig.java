@@ -0,0 +1,19 @@
+package com.matthew.test_project.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Boot records HTTP and Mongo driver metrics on its own but does not act on {@code @Timed}; the aspect makes
+ * the annotated service methods report to {@code notes.service}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
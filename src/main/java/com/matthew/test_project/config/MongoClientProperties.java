@@ -0,0 +1,44 @@
+package com.matthew.test_project.config;
+
+import com.mongodb.lang.Nullable;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * MongoDB client settings under {@code notes.mongo.client}. Anything left unset keeps the connection string's
+ * value, or the driver default when the connection string does not set it either.
+ *
+ * @param compressors    wire compressors to offer, in order of preference; the server picks the first it
+ *                       also supports, and an empty list turns compression off
+ * @param readPreference a read preference name such as {@code primary} or {@code secondaryPreferred}
+ */
+@ConfigurationProperties("notes.mongo.client")
+public record MongoClientProperties(
+        @DefaultValue Pool pool,
+        @Nullable Duration connectTimeout,
+        @Nullable Duration readTimeout,
+        @Nullable List<Compressor> compressors,
+        @Nullable String readPreference
+) {
+
+    /**
+     * @param maxWaitTime how long a request waits for a free connection before failing; the driver has no
+     *                    separate wait-queue size since 4.0
+     */
+    public record Pool(
+            @Nullable Integer maxSize,
+            @Nullable Integer minSize,
+            @Nullable Integer maxConnecting,
+            @Nullable Duration maxWaitTime,
+            @Nullable Duration maxConnectionIdleTime
+    ) {}
+
+    public enum Compressor {
+        ZSTD,
+        SNAPPY,
+        ZLIB
+    }
+}
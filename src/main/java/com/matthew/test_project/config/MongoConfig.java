@@ -2,27 +2,122 @@ package com.matthew.test_project.config;
 
 import com.mongodb.ConnectionString;
 import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
 import org.bson.UuidRepresentation;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.mongodb.config.AbstractMongoClientConfiguration;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the blocking client itself, so the {@link MongoClientSettingsBuilderCustomizer}s Boot would apply to
+ * its own client, such as the Micrometer command and connection-pool listeners, are applied here. The
+ * {@link MongoClientProperties} are applied the same way, so the reactive client Boot builds gets them too.
+ */
 @Configuration
+@EnableConfigurationProperties({MongoClientProperties.class, NoteListingProperties.class, ConcurrencyLimitProperties.class})
 public class MongoConfig extends AbstractMongoClientConfiguration {
 
+    private final ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers;
+
     @Value("${spring.data.mongodb.uri}")
     private String mongoUri;
 
+    @Value("${spring.data.mongodb.database:#{null}}")
+    private String database;
+
+    @Value("${spring.data.mongodb.auto-index-creation:false}")
+    private boolean autoIndexCreation;
+
+    public MongoConfig(ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers) {
+        this.customizers = customizers;
+    }
+
     @Override
     protected String getDatabaseName() {
-        return "testdb";
+        return databaseName(database, mongoUri);
+    }
+
+    @Override
+    protected boolean autoIndexCreation() {
+        return autoIndexCreation;
     }
 
     @Override
     protected MongoClientSettings mongoClientSettings() {
-        return MongoClientSettings.builder()
+        MongoClientSettings.Builder builder = MongoClientSettings.builder()
                 .applyConnectionString(new ConnectionString(mongoUri))
-                .uuidRepresentation(UuidRepresentation.STANDARD)
-                .build();
+                .uuidRepresentation(UuidRepresentation.STANDARD);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder.build();
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoClientPropertiesCustomizer(MongoClientProperties properties) {
+        return builder -> apply(properties, builder);
+    }
+
+    static void apply(MongoClientProperties properties, MongoClientSettings.Builder builder) {
+        MongoClientProperties.Pool pool = properties.pool();
+        builder.applyToConnectionPoolSettings(settings -> {
+            if (pool.maxSize() != null) {
+                settings.maxSize(pool.maxSize());
+            }
+            if (pool.minSize() != null) {
+                settings.minSize(pool.minSize());
+            }
+            if (pool.maxConnecting() != null) {
+                settings.maxConnecting(pool.maxConnecting());
+            }
+            if (pool.maxWaitTime() != null) {
+                settings.maxWaitTime(millis(pool.maxWaitTime()), TimeUnit.MILLISECONDS);
+            }
+            if (pool.maxConnectionIdleTime() != null) {
+                settings.maxConnectionIdleTime(millis(pool.maxConnectionIdleTime()), TimeUnit.MILLISECONDS);
+            }
+        });
+        builder.applyToSocketSettings(settings -> {
+            if (properties.connectTimeout() != null) {
+                settings.connectTimeout(millis(properties.connectTimeout()), TimeUnit.MILLISECONDS);
+            }
+            if (properties.readTimeout() != null) {
+                settings.readTimeout(millis(properties.readTimeout()), TimeUnit.MILLISECONDS);
+            }
+        });
+        if (properties.compressors() != null) {
+            builder.compressorList(properties.compressors().stream()
+                    .map(compressor -> switch (compressor) {
+                        case ZSTD -> MongoCompressor.createZstdCompressor();
+                        case SNAPPY -> MongoCompressor.createSnappyCompressor();
+                        case ZLIB -> MongoCompressor.createZlibCompressor();
+                    })
+                    .toList());
+        }
+        if (properties.readPreference() != null) {
+            builder.readPreference(ReadPreference.valueOf(properties.readPreference()));
+        }
+    }
+
+    /**
+     * Resolves the database the way Boot does for the clients it builds: {@code spring.data.mongodb.database},
+     * else the one named in the URI, else {@code test}. The blocking and the reactive client must agree on it.
+     */
+    static String databaseName(String configured, String uri) {
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String fromUri = new ConnectionString(uri).getDatabase();
+        return fromUri != null ? fromUri : "test";
+    }
+
+    private static int millis(Duration duration) {
+        return Math.toIntExact(duration.toMillis());
     }
 }
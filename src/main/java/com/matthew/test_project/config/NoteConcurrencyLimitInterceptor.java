@@ -0,0 +1,52 @@
+package com.matthew.test_project.config;
+
+import com.matthew.test_project.exception.ServiceOverloadedException;
+import com.matthew.test_project.service.AdaptiveConcurrencyLimit;
+import com.matthew.test_project.service.NoteConcurrencyLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits servlet requests through {@link NoteConcurrencyLimiter}. The permit is taken before the handler runs
+ * and returned once the response is complete, with the time in between as the latency the limit adapts to.
+ */
+class NoteConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String LIMIT = NoteConcurrencyLimitInterceptor.class.getName() + ".limit";
+    private static final String STARTED = NoteConcurrencyLimitInterceptor.class.getName() + ".started";
+
+    private final NoteConcurrencyLimiter limiter;
+
+    NoteConcurrencyLimitInterceptor(NoteConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        AdaptiveConcurrencyLimit limit = limiter.limitFor(
+                request.getMethod(), request.getRequestURI(), request.getParameter("tags") != null);
+        if (limit == null) {
+            return true;
+        }
+        if (!limit.tryAcquire()) {
+            limiter.rejected(limit);
+            throw new ServiceOverloadedException(
+                    "Too many concurrent " + limiter.budgetName(limit) + " requests, retry later",
+                    limiter.retryAfterSeconds());
+        }
+        request.setAttribute(LIMIT, limit);
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(LIMIT) instanceof AdaptiveConcurrencyLimit limit
+                && request.getAttribute(STARTED) instanceof Long started) {
+            request.removeAttribute(LIMIT);
+            limit.release(System.nanoTime() - started);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.matthew.test_project.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matthew.test_project.exception.ErrorResponse;
+import com.matthew.test_project.service.AdaptiveConcurrencyLimit;
+import com.matthew.test_project.service.NoteConcurrencyLimiter;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Admits WebFlux requests through {@link NoteConcurrencyLimiter}, holding the permit until the response
+ * completes, errors or is cancelled. Rejections are written here, since a filter's errors never reach
+ * {@code ReactiveExceptionHandler}, with the same body it would produce.
+ */
+@Component
+@Profile("reactive")
+public class NoteConcurrencyLimitWebFilter implements WebFilter {
+
+    private final NoteConcurrencyLimiter limiter;
+    private final ObjectMapper objectMapper;
+
+    public NoteConcurrencyLimitWebFilter(NoteConcurrencyLimiter limiter, ObjectMapper objectMapper) {
+        this.limiter = limiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        AdaptiveConcurrencyLimit limit = limiter.limitFor(
+                request.getMethod().name(), request.getPath().value(), request.getQueryParams().containsKey("tags"));
+        if (limit == null) {
+            return chain.filter(exchange);
+        }
+        if (!limit.tryAcquire()) {
+            limiter.rejected(limit);
+            return reject(exchange, "Too many concurrent " + limiter.budgetName(limit) + " requests, retry later");
+        }
+        long started = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> limit.release(System.nanoTime() - started));
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, String message) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(limiter.retryAfterSeconds()));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        ErrorResponse body = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                message, Instant.now(), "uri=" + exchange.getRequest().getPath().value());
+        try {
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(objectMapper.writeValueAsBytes(body))));
+        } catch (JsonProcessingException e) {
+            return Mono.error(e);
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.matthew.test_project.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Listing settings under {@code notes.listing}.
+ *
+ * @param orderById page the cursor listing newest first by {@code _id} alone instead of
+ *                  {@code (createdDate, _id)}. Only correct once every note has a time-ordered id, that is
+ *                  once no note created before ids became time-ordered is left; the {@code createdDate}
+ *                  listing indexes are then no longer needed by it.
+ */
+@ConfigurationProperties("notes.listing")
+public record NoteListingProperties(boolean orderById) {
+}
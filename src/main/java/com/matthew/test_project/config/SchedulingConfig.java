@@ -0,0 +1,13 @@
+package com.matthew.test_project.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Runs the {@code @Scheduled} maintenance jobs, such as flushing and reconciling the tag counts, on Boot's
+ * task scheduler.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,24 @@
+package com.matthew.test_project.config;
+
+import com.matthew.test_project.service.NoteConcurrencyLimiter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final NoteConcurrencyLimiter noteConcurrencyLimiter;
+
+    public WebMvcConfig(NoteConcurrencyLimiter noteConcurrencyLimiter) {
+        this.noteConcurrencyLimiter = noteConcurrencyLimiter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new NoteConcurrencyLimitInterceptor(noteConcurrencyLimiter))
+                .addPathPatterns("/api/notes/**");
+    }
+}
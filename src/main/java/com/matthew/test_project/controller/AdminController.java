@@ -0,0 +1,48 @@
+package com.matthew.test_project.controller;
+
+import com.matthew.test_project.dto.NoteCacheStatsDto;
+import com.matthew.test_project.dto.NoteTagFacetsDto;
+import com.matthew.test_project.dto.SlowCommandDto;
+import com.matthew.test_project.service.NoteCache;
+import com.matthew.test_project.service.NoteTagCounters;
+import com.matthew.test_project.service.SlowCommandLog;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final NoteCache noteCache;
+    private final SlowCommandLog slowCommandLog;
+    private final NoteTagCounters noteTagCounters;
+
+    public AdminController(NoteCache noteCache, SlowCommandLog slowCommandLog, NoteTagCounters noteTagCounters) {
+        this.noteCache = noteCache;
+        this.slowCommandLog = slowCommandLog;
+        this.noteTagCounters = noteTagCounters;
+    }
+
+    @GetMapping("/note-cache")
+    public ResponseEntity<NoteCacheStatsDto> getNoteCacheStats() {
+        return ResponseEntity.ok(noteCache.stats());
+    }
+
+    @GetMapping("/slow-commands")
+    public ResponseEntity<List<SlowCommandDto>> getSlowCommands() {
+        return ResponseEntity.ok(slowCommandLog.recent());
+    }
+
+    /**
+     * Recomputes the tag counts from the notes now instead of at the next scheduled reconcile.
+     */
+    @PostMapping("/note-facets/reconcile")
+    public ResponseEntity<NoteTagFacetsDto> reconcileTagFacets() {
+        return ResponseEntity.ok(noteTagCounters.reconcile());
+    }
+}
@@ -1,32 +1,59 @@
 package com.matthew.test_project.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.matthew.test_project.dto.NoteBulkCreateResultDto;
 import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteCursorPageDto;
 import com.matthew.test_project.dto.NoteDetailDto;
 import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.dto.NoteSearchHitDto;
+import com.matthew.test_project.dto.NoteSliceDto;
+import com.matthew.test_project.dto.NoteTagFacetsDto;
 import com.matthew.test_project.dto.NoteUpdateDto;
+import com.matthew.test_project.dto.NoteVersionDto;
+import com.matthew.test_project.dto.NoteVersionedPageDto;
 import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteTagFilter;
 import com.matthew.test_project.repository.NoteRepository;
 import com.matthew.test_project.service.NoteService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.stream.Stream;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/notes")
 public class NoteController {
 
     private final NoteService noteService;
     private final NoteRepository noteRepository;
+    private final ObjectMapper objectMapper;
 
-    public NoteController(NoteService noteService, NoteRepository noteRepository) {
+    public NoteController(NoteService noteService, NoteRepository noteRepository, ObjectMapper objectMapper) {
         this.noteService = noteService;
         this.noteRepository = noteRepository;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping
@@ -34,19 +61,149 @@ public class NoteController {
         return ResponseEntity.ok(noteService.create(dto));
     }
 
+    /**
+     * Accepts a JSON array or NDJSON of {@link NoteCreateDto}. The body is read item by item, never as a
+     * whole.
+     */
+    @PostMapping(
+            value = "/bulk",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE}
+    )
+    public ResponseEntity<NoteBulkCreateResultDto> createNotes(InputStream body) throws IOException {
+        try (MappingIterator<NoteCreateDto> items = objectMapper.readerFor(NoteCreateDto.class).readValues(body)) {
+            return ResponseEntity.ok(noteService.createAll(items));
+        }
+    }
+
+    /**
+     * Sends an ETag and {@code Last-Modified} for the whole filtered listing. A conditional request is checked
+     * against them before the page is read and answered with 304 when they match; an unconditional one takes
+     * the count from the page itself.
+     */
     @GetMapping
     public ResponseEntity<Page<NoteListDto>> getAllNotes(
 
             @RequestParam(required = false) Set<NoteTag> tags,
+
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @PageableDefault(size = 20, sort = "createdDate", direction = Sort.Direction.DESC)
+            Pageable pageable,
+            WebRequest request
+    ) {
+        NoteTagFilter filter = NoteTagFilter.of(tags, tagMatch);
+        if (isConditional(request)) {
+            if (notModified(request, noteService.getListVersion(filter))) {
+                return null;
+            }
+            // The validators just checked are already on the response and no newer than the page.
+            return ResponseEntity.ok(noteService.findAll(filter, pageable));
+        }
+        NoteVersionedPageDto listing = noteService.findAllVersioned(filter, pageable);
+        return withValidators(ResponseEntity.ok(), listing.version()).body(listing.page());
+    }
+
+    @GetMapping("/slice")
+    public ResponseEntity<NoteSliceDto> getNotesSlice(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(defaultValue = "false") boolean withTotal,
             @PageableDefault(size = 20, sort = "createdDate", direction = Sort.Direction.DESC)
             Pageable pageable
     ) {
-        return ResponseEntity.ok(noteService.findAll(tags, pageable));
+        return ResponseEntity.ok(noteService.findSlice(NoteTagFilter.of(tags, tagMatch), pageable, withTotal));
+    }
+
+    @GetMapping("/cursor")
+    public ResponseEntity<NoteCursorPageDto> getNotesAfter(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(noteService.findAllAfter(NoteTagFilter.of(tags, tagMatch), after, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<NoteSearchHitDto>> searchNotes(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(noteService.search(q, size));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<NoteTagFacetsDto> getTagFacets() {
+        return ResponseEntity.ok(noteService.getTagFacets());
+    }
+
+    @GetMapping("/word-stats")
+    public ResponseEntity<Map<String, Long>> getCorpusWordStatistics(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int top
+    ) {
+        return ResponseEntity.ok(
+                noteService.getCorpusWordFrequency(NoteTagFilter.of(tags, tagMatch), from, to, top));
+    }
+
+    /**
+     * Writes every matching note as one NDJSON line, straight from the Mongo cursor to the response.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportNotes(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response
+    ) throws IOException {
+        try (Stream<NoteDetailDto> notes = noteService.exportNotes(NoteTagFilter.of(tags, tagMatch), from, to)) {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+
+            // Let the servlet buffer decide when to send a chunk instead of flushing after every note.
+            ObjectWriter writer = objectMapper.writerFor(NoteDetailDto.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(response.getOutputStream());
+
+            Iterator<NoteDetailDto> iterator = notes.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        }
     }
 
+    /**
+     * Sends the note's version as a strong ETag and its {@code Last-Modified}. A conditional request is
+     * checked against the version alone and only reads the note when it has changed.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<NoteDetailDto> getNoteById(@PathVariable UUID id) {
-        return ResponseEntity.ok(noteService.findById(id));
+    public ResponseEntity<NoteDetailDto> getNoteById(
+            @PathVariable UUID id,
+            WebRequest request,
+            HttpServletResponse response
+    ) {
+        boolean conditional = isConditional(request);
+        if (conditional && notModified(request, noteService.getVersion(id))) {
+            return null;
+        }
+
+        NoteDetailDto note = noteService.findById(id);
+        NoteVersionDto version = versionOf(note);
+        if (conditional) {
+            // checkNotModified put the looked-up version on the response, which an edit landing since may
+            // have moved past; describe the note actually sent instead.
+            response.setHeader(HttpHeaders.ETAG, "\"" + version.tag() + "\"");
+            if (version.lastModified() != null) {
+                response.setDateHeader(HttpHeaders.LAST_MODIFIED, epochMillis(version));
+            }
+            return ResponseEntity.ok(note);
+        }
+        return withValidators(ResponseEntity.ok(), version).body(note);
     }
 
     @PutMapping("/{id}")
@@ -64,10 +221,43 @@ public class NoteController {
     }
 
     @GetMapping("/{id}/word-stats")
-    public ResponseEntity<Map<String, Long>> getWordStatistics(@PathVariable UUID id) {
-        return ResponseEntity.ok(noteService.getWordFrequency(id));
+    public ResponseEntity<Map<String, Long>> getWordStatistics(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer top
+    ) {
+        return ResponseEntity.ok(noteService.getWordFrequency(id, top));
     }
 
+    private static boolean isConditional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
 
+    /**
+     * Puts the validators on the response and, when the request's preconditions match them, turns it into a
+     * 304 that the handler must not add a body to.
+     */
+    private static boolean notModified(WebRequest request, NoteVersionDto version) {
+        return request.checkNotModified("\"" + version.tag() + "\"", epochMillis(version));
+    }
 
-}
\ No newline at end of file
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response,
+                                                             NoteVersionDto version) {
+        response.eTag(version.tag());
+        if (version.lastModified() != null) {
+            response.lastModified(version.lastModified().atZone(ZoneId.systemDefault()));
+        }
+        return response;
+    }
+
+    private static NoteVersionDto versionOf(NoteDetailDto note) {
+        return new NoteVersionDto(String.valueOf(note.getVersion() != null ? note.getVersion() : 0L),
+                note.getLastModified());
+    }
+
+    private static long epochMillis(NoteVersionDto version) {
+        return version.lastModified() != null
+                ? version.lastModified().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : -1;
+    }
+}
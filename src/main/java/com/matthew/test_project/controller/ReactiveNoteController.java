@@ -0,0 +1,199 @@
+package com.matthew.test_project.controller;
+
+import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteCursorPageDto;
+import com.matthew.test_project.dto.NoteDetailDto;
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.dto.NoteSearchHitDto;
+import com.matthew.test_project.dto.NoteSliceDto;
+import com.matthew.test_project.dto.NoteTagFacetsDto;
+import com.matthew.test_project.dto.NoteUpdateDto;
+import com.matthew.test_project.dto.NoteVersionDto;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteTagFilter;
+import com.matthew.test_project.service.ReactiveNoteService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * WebFlux version of {@link NoteController} for the {@code reactive} profile, on the same paths and with the
+ * same DTOs. Bulk creation is only offered by the servlet API.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/notes")
+public class ReactiveNoteController {
+
+    private final ReactiveNoteService noteService;
+
+    public ReactiveNoteController(ReactiveNoteService noteService) {
+        this.noteService = noteService;
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<NoteDetailDto>> createNote(@Valid @RequestBody NoteCreateDto dto) {
+        return noteService.create(dto).map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Page<NoteListDto>>> getAllNotes(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @PageableDefault(size = 20, sort = "createdDate", direction = Sort.Direction.DESC)
+            Pageable pageable,
+            ServerWebExchange exchange
+    ) {
+        NoteTagFilter filter = NoteTagFilter.of(tags, tagMatch);
+        if (isConditional(exchange)) {
+            return noteService.getListVersion(filter)
+                    .flatMap(version -> notModified(exchange, version)
+                            ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<Page<NoteListDto>>build())
+                            : noteService.findAll(filter, pageable).map(ResponseEntity::ok));
+        }
+        return noteService.findAllVersioned(filter, pageable)
+                .map(listing -> withValidators(ResponseEntity.ok(), listing.version()).body(listing.page()));
+    }
+
+    @GetMapping("/slice")
+    public Mono<ResponseEntity<NoteSliceDto>> getNotesSlice(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @PageableDefault(size = 20, sort = "createdDate", direction = Sort.Direction.DESC)
+            Pageable pageable
+    ) {
+        return noteService.findSlice(NoteTagFilter.of(tags, tagMatch), pageable, withTotal).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/cursor")
+    public Mono<ResponseEntity<NoteCursorPageDto>> getNotesAfter(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return noteService.findAllAfter(NoteTagFilter.of(tags, tagMatch), after, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<NoteSearchHitDto>>> searchNotes(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return noteService.search(q, size).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/facets")
+    public Mono<ResponseEntity<NoteTagFacetsDto>> getTagFacets() {
+        return noteService.getTagFacets().map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/word-stats")
+    public Mono<ResponseEntity<Map<String, Long>>> getCorpusWordStatistics(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "100") int top
+    ) {
+        return noteService.getCorpusWordFrequency(NoteTagFilter.of(tags, tagMatch), from, to, top)
+                .map(ResponseEntity::ok);
+    }
+
+    /**
+     * Writes every matching note as one NDJSON line; the Mongo cursor is read only as fast as the client
+     * consumes the response.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<NoteDetailDto> exportNotes(
+            @RequestParam(required = false) Set<NoteTag> tags,
+            @RequestParam(defaultValue = "ANY") NoteTagFilter.Match tagMatch,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to
+    ) {
+        return noteService.exportNotes(NoteTagFilter.of(tags, tagMatch), from, to);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<NoteDetailDto>> getNoteById(@PathVariable UUID id, ServerWebExchange exchange) {
+        // The entity's validators replace those checkNotModified put on the response, so the ETag sent always
+        // describes the note read, even when an edit landed after the version was checked.
+        Mono<ResponseEntity<NoteDetailDto>> read = noteService.findById(id)
+                .map(note -> withValidators(ResponseEntity.ok(), versionOf(note)).body(note));
+        if (isConditional(exchange)) {
+            return noteService.getVersion(id)
+                    .flatMap(version -> notModified(exchange, version)
+                            ? Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).<NoteDetailDto>build())
+                            : read);
+        }
+        return read;
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<NoteDetailDto>> updateNote(
+            @PathVariable UUID id,
+            @Valid @RequestBody NoteUpdateDto dto
+    ) {
+        return noteService.update(id, dto).map(ResponseEntity::ok);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteNote(@PathVariable UUID id) {
+        return noteService.delete(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    @GetMapping("/{id}/word-stats")
+    public Mono<ResponseEntity<Map<String, Long>>> getWordStatistics(
+            @PathVariable UUID id,
+            @RequestParam(required = false) Integer top
+    ) {
+        return noteService.getWordFrequency(id, top).map(ResponseEntity::ok);
+    }
+
+    private static boolean isConditional(ServerWebExchange exchange) {
+        HttpHeaders headers = exchange.getRequest().getHeaders();
+        return headers.containsKey(HttpHeaders.IF_NONE_MATCH) || headers.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    private static ResponseEntity.BodyBuilder withValidators(ResponseEntity.BodyBuilder response,
+                                                             NoteVersionDto version) {
+        response.eTag(version.tag());
+        if (version.lastModified() != null) {
+            response.lastModified(version.lastModified().atZone(ZoneId.systemDefault()));
+        }
+        return response;
+    }
+
+    private static NoteVersionDto versionOf(NoteDetailDto note) {
+        return new NoteVersionDto(String.valueOf(note.getVersion() != null ? note.getVersion() : 0L),
+                note.getLastModified());
+    }
+
+    private static boolean notModified(ServerWebExchange exchange, NoteVersionDto version) {
+        Instant lastModified = version.lastModified() != null
+                ? version.lastModified().atZone(ZoneId.systemDefault()).toInstant()
+                : Instant.MIN;
+        return exchange.checkNotModified("\"" + version.tag() + "\"", lastModified);
+    }
+}
@@ -0,0 +1,9 @@
+package com.matthew.test_project.dto;
+
+import java.util.List;
+
+public record NoteBulkCreateResultDto(
+        int created,
+        int failed,
+        List<NoteBulkItemResultDto> items
+) {}
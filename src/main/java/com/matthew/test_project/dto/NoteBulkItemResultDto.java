@@ -0,0 +1,17 @@
+package com.matthew.test_project.dto;
+
+import java.util.Map;
+import java.util.UUID;
+
+public record NoteBulkItemResultDto(
+        int index,
+        Status status,
+        UUID id,
+        Map<String, String> errors
+) {
+    public enum Status {
+        CREATED,
+        INVALID,
+        FAILED
+    }
+}
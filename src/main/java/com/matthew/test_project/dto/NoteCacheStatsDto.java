@@ -0,0 +1,9 @@
+package com.matthew.test_project.dto;
+
+public record NoteCacheStatsDto(
+        long size,
+        long hitCount,
+        long missCount,
+        double hitRate,
+        long evictionCount
+) {}
@@ -21,4 +21,8 @@ public class NoteDetailDto {
 
     private Set<NoteTag> tags;
 
+    private Long version;
+
+    private LocalDateTime lastModified;
+
 }
@@ -0,0 +1,11 @@
+package com.matthew.test_project.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public record NoteSearchHitDto(
+        UUID id,
+        String title,
+        LocalDateTime createdDate,
+        double score
+) {}
@@ -0,0 +1,15 @@
+package com.matthew.test_project.dto;
+
+import java.util.List;
+
+/**
+ * A page of notes without a total count. {@code totalElements} is only filled in when the caller asks for
+ * it, and then comes from an estimate or a short-lived cached count.
+ */
+public record NoteSliceDto(
+        List<NoteListDto> content,
+        int page,
+        int size,
+        boolean hasNext,
+        Long totalElements
+) {}
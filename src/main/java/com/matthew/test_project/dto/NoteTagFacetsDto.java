@@ -0,0 +1,17 @@
+package com.matthew.test_project.dto;
+
+import com.matthew.test_project.model.NoteTag;
+
+import java.util.Map;
+
+/**
+ * Note counts per tag; a note with several tags counts towards each of them.
+ *
+ * @param untagged notes without any tag
+ * @param total    all notes
+ */
+public record NoteTagFacetsDto(
+        Map<NoteTag, Long> tags,
+        long untagged,
+        long total
+) {}
@@ -19,4 +19,9 @@ public class NoteUpdateDto {
     private String text;
 
     private Set<NoteTag> tags;
+
+    /**
+     * Version the caller last read. When set, the update only applies if the note is still at that version.
+     */
+    private Long version;
 }
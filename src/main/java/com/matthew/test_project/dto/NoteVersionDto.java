@@ -0,0 +1,16 @@
+package com.matthew.test_project.dto;
+
+import com.mongodb.lang.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Validators of a note or listing, answered without reading or serializing the body.
+ *
+ * @param tag          opaque value of the strong ETag, without quotes
+ * @param lastModified newest modification covered, or null when there is nothing to cover
+ */
+public record NoteVersionDto(
+        String tag,
+        @Nullable LocalDateTime lastModified
+) {}
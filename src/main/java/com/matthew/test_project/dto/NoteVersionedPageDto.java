@@ -0,0 +1,11 @@
+package com.matthew.test_project.dto;
+
+import org.springframework.data.domain.Page;
+
+/**
+ * A page of the listing together with the listing's validators, whose count is the page's own total.
+ */
+public record NoteVersionedPageDto(
+        Page<NoteListDto> page,
+        NoteVersionDto version
+) {}
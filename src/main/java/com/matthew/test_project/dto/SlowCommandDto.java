@@ -0,0 +1,13 @@
+package com.matthew.test_project.dto;
+
+import java.time.Instant;
+
+public record SlowCommandDto(
+        Instant startedAt,
+        String database,
+        String commandName,
+        String command,
+        double durationMillis,
+        boolean failed,
+        String calledFrom
+) {}
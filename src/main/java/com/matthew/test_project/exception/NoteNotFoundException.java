@@ -1,7 +1,8 @@
 package com.matthew.test_project.exception;
 
 public class NoteNotFoundException extends RuntimeException{
+    // Thrown on every lookup of a missing id and only ever rendered as a 404, so skip the stack trace.
     public NoteNotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
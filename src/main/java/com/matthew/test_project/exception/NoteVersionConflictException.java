@@ -0,0 +1,7 @@
+package com.matthew.test_project.exception;
+
+public class NoteVersionConflictException extends RuntimeException {
+    public NoteVersionConflictException(String message) {
+        super(message);
+    }
+}
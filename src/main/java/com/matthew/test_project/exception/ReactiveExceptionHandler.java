@@ -0,0 +1,109 @@
+package com.matthew.test_project.exception;
+
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * {@link GlobalExceptionHandler} for the WebFlux API: the same statuses and bodies, mapped from the WebFlux
+ * exception types.
+ */
+@ControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    @ExceptionHandler(NoteNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNoteNotFound(
+            NoteNotFoundException ex,
+            ServerWebExchange exchange
+    ) {
+        return error(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(NoteVersionConflictException.class)
+    public ResponseEntity<ErrorResponse> handleVersionConflict(
+            NoteVersionConflictException ex,
+            ServerWebExchange exchange
+    ) {
+        return error(HttpStatus.CONFLICT, "Conflict", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(
+            BadRequestException ex,
+            ServerWebExchange exchange
+    ) {
+        return error(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> handleValidationExceptions(
+            WebExchangeBindException ex,
+            ServerWebExchange exchange
+    ) {
+        Map<String, String> errors = new HashMap<>();
+        ex.getBindingResult().getAllErrors().forEach(error -> {
+            String fieldName = ((FieldError) error).getField();
+            errors.put(fieldName, error.getDefaultMessage());
+        });
+
+        ErrorResponse error = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Validation Failed",
+                "Invalid request data",
+                Instant.now(),
+                description(exchange),
+                errors
+        );
+        return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
+    }
+
+    // Covers both unreadable bodies and unconvertible parameters, which the servlet API handles separately.
+    @ExceptionHandler(ServerWebInputException.class)
+    public ResponseEntity<String> handleServerWebInput(ServerWebInputException ex) {
+        if (ex.getCause() instanceof TypeMismatchException) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid tag value provided");
+        }
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof InvalidFormatException ife && ife.getTargetType().isEnum()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid tag value: " + ife.getValue());
+            }
+        }
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid request body");
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorResponse> handleGlobalException(
+            Exception ex,
+            ServerWebExchange exchange
+    ) {
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", "An unexpected error occurred", exchange);
+    }
+
+    private static ResponseEntity<ErrorResponse> error(
+            HttpStatus status,
+            String error,
+            String message,
+            ServerWebExchange exchange
+    ) {
+        ErrorResponse body = new ErrorResponse(status.value(), error, message, Instant.now(), description(exchange));
+        return new ResponseEntity<>(body, status);
+    }
+
+    // Same format as WebRequest.getDescription(false) in the servlet handler.
+    private static String description(ServerWebExchange exchange) {
+        return "uri=" + exchange.getRequest().getPath().value();
+    }
+}
@@ -0,0 +1,18 @@
+package com.matthew.test_project.exception;
+
+import lombok.Getter;
+
+/**
+ * A request turned away because its concurrency limit was reached; answered with 503 and {@code Retry-After}.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    // Thrown whenever the service sheds load, which is exactly when it can least afford stack traces.
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message, null, false, false);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
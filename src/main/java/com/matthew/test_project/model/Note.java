@@ -5,9 +5,13 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.*;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -17,6 +21,11 @@ import java.util.UUID;
 @AllArgsConstructor
 @NoArgsConstructor
 @Document(collection = "testproject")
+@CompoundIndex(name = "createdDate_id", def = "{ 'createdDate': -1, '_id': -1 }")
+@CompoundIndex(name = "tags_createdDate_id", def = "{ 'tags': 1, 'createdDate': -1, '_id': -1 }")
+@CompoundIndex(name = "tags_id", def = "{ 'tags': 1, '_id': -1 }")
+@CompoundIndex(name = "lastModified", def = "{ 'lastModified': -1 }")
+@CompoundIndex(name = "tags_lastModified", def = "{ 'tags': 1, 'lastModified': -1 }")
 public class Note {
 
     @Id
@@ -32,7 +41,46 @@ public class Note {
     @Size(min = 1, max = 1000, message = "Text must be between 1 and 1000 characters")
     private String text;
 
+    /**
+     * The tags as a bitmask of {@link NoteTag#mask()}, stored in the {@code tags} field: a single int keeps the
+     * tag indexes small and not multikey. Read and written as a set through {@link #getTags()} and
+     * {@link #setTags}.
+     */
+    @Field("tags")
+    private int tagMask;
+
+    /**
+     * Incremented by every update; callers may send the version they last read to detect concurrent edits.
+     */
+    @Nullable
+    private Long version;
+
+    /**
+     * Set on create and by every update; the {@code Last-Modified} of the note and, as the newest value in a
+     * listing, part of that listing's validator. Absent on notes not written since it was introduced.
+     */
+    @Nullable
+    private LocalDateTime lastModified;
+
+    /**
+     * Word frequencies of {@link #text}, most frequent first. Recomputed whenever the text changes so
+     * the word-stats endpoint never has to tokenize on read.
+     */
     @Nullable
-    private Set<NoteTag> tags;
+    private Map<String, Long> wordStats;
+
+    public Set<NoteTag> getTags() {
+        return NoteTag.fromMask(tagMask);
+    }
+
+    public void setTags(@Nullable Collection<NoteTag> tags) {
+        this.tagMask = NoteTag.toMask(tags);
+    }
+
+    public static class NoteBuilder {
 
+        public NoteBuilder tags(@Nullable Collection<NoteTag> tags) {
+            return tagMask(NoteTag.toMask(tags));
+        }
+    }
 }
@@ -1,8 +1,57 @@
 package com.matthew.test_project.model;
 
+import jakarta.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Note tags. A note stores its tags as one int with the {@link #mask()} of each tag set, so every tag needs
+ * its own bit below 31; a bit must never be reused or moved once notes have been stored with it.
+ */
 public enum NoteTag {
-    BUSINESS,
-    PERSONAL,
-    IMPORTANT
-}
+    BUSINESS(0),
+    PERSONAL(1),
+    IMPORTANT(2);
+
+    private static final NoteTag[] VALUES = values();
+    private static final int ALL_MASK = toMask(EnumSet.allOf(NoteTag.class));
+
+    private final int bit;
 
+    NoteTag(int bit) {
+        this.bit = bit;
+    }
+
+    public int mask() {
+        return 1 << bit;
+    }
+
+    /**
+     * @return the mask with every tag set
+     */
+    public static int allMask() {
+        return ALL_MASK;
+    }
+
+    public static int toMask(@Nullable Collection<NoteTag> tags) {
+        int mask = 0;
+        if (tags != null) {
+            for (NoteTag tag : tags) {
+                mask |= tag.mask();
+            }
+        }
+        return mask;
+    }
+
+    public static Set<NoteTag> fromMask(int mask) {
+        EnumSet<NoteTag> tags = EnumSet.noneOf(NoteTag.class);
+        for (NoteTag tag : VALUES) {
+            if ((mask & tag.mask()) != 0) {
+                tags.add(tag);
+            }
+        }
+        return tags;
+    }
+}
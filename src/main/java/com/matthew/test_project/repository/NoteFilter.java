@@ -0,0 +1,15 @@
+package com.matthew.test_project.repository;
+
+import com.mongodb.lang.Nullable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Filter shared by the corpus-wide queries: {@code tags}, and {@code createdDate} in {@code [from, to)}.
+ * Every part is optional; {@link NoteTagFilter#NONE_GIVEN} matches every note.
+ */
+public record NoteFilter(
+        NoteTagFilter tags,
+        @Nullable LocalDateTime from,
+        @Nullable LocalDateTime to
+) {}
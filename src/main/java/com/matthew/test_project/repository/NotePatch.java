@@ -0,0 +1,38 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import com.mongodb.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fields to overwrite in a partial update; {@code null} leaves the stored value as it is. Every update also
+ * increments the version and sets {@code lastModified}.
+ */
+public record NotePatch(
+        @Nullable String title,
+        @Nullable String text,
+        @Nullable Map<String, Long> wordStats,
+        @Nullable Set<NoteTag> tags,
+        LocalDateTime lastModified
+) {
+
+    /**
+     * @return the note as the update leaves it, given the note as it was before
+     */
+    public Note applyTo(Note previous) {
+        return Note.builder()
+                .id(previous.getId())
+                .title(title != null ? title : previous.getTitle())
+                .text(text != null ? text : previous.getText())
+                .wordStats(wordStats != null ? wordStats : previous.getWordStats())
+                .tags(tags != null ? tags : previous.getTags())
+                .createdDate(previous.getCreatedDate())
+                .version(previous.getVersion() != null ? previous.getVersion() + 1 : 1L)
+                .lastModified(lastModified)
+                .build();
+    }
+}
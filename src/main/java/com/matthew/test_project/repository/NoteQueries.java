@@ -0,0 +1,191 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.model.NoteTag;
+import com.mongodb.lang.Nullable;
+import org.bson.Document;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queries shared by the blocking and the reactive repository implementations.
+ */
+final class NoteQueries {
+
+    // Up to this many tags a tag filter lists the matching masks, at most 2^8 of them.
+    private static final int MAX_ENUMERATED_TAGS = 8;
+
+    private NoteQueries() {
+    }
+
+    /**
+     * The {@code tags} predicate of {@code filter}. With few enough tags it lists every mask that passes the
+     * filter in one {@code $in}, which the tag indexes answer with point lookups; beyond that it falls back to
+     * {@code $bitsAnySet}, {@code $bitsAllSet} or {@code $bitsAllClear}, which have to scan the index.
+     */
+    static Criteria tagCriteria(NoteTagFilter filter) {
+        if (NoteTag.values().length > MAX_ENUMERATED_TAGS) {
+            return switch (filter.match()) {
+                case ANY -> Criteria.where("tags").bits().anySet(filter.mask());
+                case ALL -> Criteria.where("tags").bits().allSet(filter.mask());
+                case NONE -> Criteria.where("tags").bits().allClear(filter.mask());
+            };
+        }
+        List<Integer> masks = new ArrayList<>();
+        int all = NoteTag.allMask();
+        // Every subset of the tag bits, all of them down to none.
+        for (int mask = all; ; mask = (mask - 1) & all) {
+            if (filter.matches(mask)) {
+                masks.add(mask);
+            }
+            if (mask == 0) {
+                break;
+            }
+        }
+        return Criteria.where("tags").in(masks);
+    }
+
+    static Query list(NoteTagFilter tags, Pageable pageable, int limit) {
+        return new Query(tags.isEmpty() ? new Criteria() : tagCriteria(tags))
+                .with(pageable.getSort())
+                .skip(pageable.getOffset())
+                .limit(limit);
+    }
+
+    static Query count(NoteTagFilter tags) {
+        return new Query(tags.isEmpty() ? new Criteria() : tagCriteria(tags));
+    }
+
+    static Query tagsById(UUID id) {
+        Query query = new Query(Criteria.where("_id").is(id));
+        query.fields().include("tags");
+        return query;
+    }
+
+    static Query updateFields(UUID id, @Nullable Long expectedVersion) {
+        Criteria criteria = Criteria.where("_id").is(id);
+        if (expectedVersion != null) {
+            criteria = expectedVersion == 0
+                    // Notes written before versioning have no version field yet.
+                    ? criteria.orOperator(Criteria.where("version").is(0L), Criteria.where("version").exists(false))
+                    : criteria.and("version").is(expectedVersion);
+        }
+        Query query = new Query(criteria);
+        query.fields().exclude("wordStats");
+        return query;
+    }
+
+    static Update update(NotePatch patch) {
+        Update update = new Update().inc("version", 1L).set("lastModified", patch.lastModified());
+        if (patch.title() != null) {
+            update.set("title", patch.title());
+        }
+        if (patch.text() != null) {
+            update.set("text", patch.text());
+        }
+        if (patch.wordStats() != null) {
+            update.set("wordStats", patch.wordStats());
+        }
+        if (patch.tags() != null) {
+            update.set("tags", NoteTag.toMask(patch.tags()));
+        }
+        return update;
+    }
+
+    /**
+     * The most recently modified note matching {@code tags}, carrying only {@code lastModified}; served by the
+     * {@code lastModified} indexes.
+     */
+    static Query lastModified(NoteTagFilter tags) {
+        Query query = new Query(tags.isEmpty() ? new Criteria() : tagCriteria(tags))
+                .with(Sort.by(Sort.Direction.DESC, "lastModified"))
+                .limit(1);
+        query.fields().include("lastModified");
+        return query;
+    }
+
+    static Aggregation wordSources(NoteFilter filter, int batchSize) {
+        Document projection = new Document("wordStats", 1)
+                .append("text", new Document("$cond", List.of(
+                        new Document("$ifNull", List.of("$wordStats", false)),
+                        "$$REMOVE",
+                        "$text"
+                )));
+
+        return Aggregation.newAggregation(
+                Aggregation.match(criteria(filter)),
+                context -> new Document("$project", projection)
+        ).withOptions(AggregationOptions.builder().cursorBatchSize(batchSize).build());
+    }
+
+    static Query notes(NoteFilter filter, int batchSize) {
+        Query query = new Query(criteria(filter)).cursorBatchSize(batchSize);
+        query.fields().exclude("wordStats");
+        return query;
+    }
+
+    static Query pageAfter(NoteTagFilter tags, @Nullable NoteCursor after, int limit) {
+        List<Criteria> parts = new ArrayList<>();
+
+        if (!tags.isEmpty()) {
+            parts.add(tagCriteria(tags));
+        }
+        if (after != null) {
+            parts.add(new Criteria().orOperator(
+                    Criteria.where("createdDate").lt(after.createdDate()),
+                    Criteria.where("createdDate").is(after.createdDate()).and("_id").lt(after.id())
+            ));
+        }
+
+        return new Query(parts.isEmpty() ? new Criteria() : new Criteria().andOperator(parts))
+                .with(Sort.by(Sort.Direction.DESC, "createdDate", "_id"))
+                .limit(limit);
+    }
+
+    /**
+     * Like {@link #pageAfter} but ordered by {@code _id} alone, which for time-ordered ids is creation order;
+     * served by the {@code _id} index, or {@code (tags, _id)} with a tag filter.
+     */
+    static Query pageAfterId(NoteTagFilter tags, @Nullable UUID after, int limit) {
+        List<Criteria> parts = new ArrayList<>();
+
+        if (!tags.isEmpty()) {
+            parts.add(tagCriteria(tags));
+        }
+        if (after != null) {
+            parts.add(Criteria.where("_id").lt(after));
+        }
+
+        return new Query(parts.isEmpty() ? new Criteria() : new Criteria().andOperator(parts))
+                .with(Sort.by(Sort.Direction.DESC, "_id"))
+                .limit(limit);
+    }
+
+    static Criteria criteria(NoteFilter filter) {
+        List<Criteria> parts = new ArrayList<>();
+
+        if (!filter.tags().isEmpty()) {
+            parts.add(tagCriteria(filter.tags()));
+        }
+        if (filter.from() != null || filter.to() != null) {
+            Criteria createdDate = Criteria.where("createdDate");
+            if (filter.from() != null) {
+                createdDate = createdDate.gte(filter.from());
+            }
+            if (filter.to() != null) {
+                createdDate = createdDate.lt(filter.to());
+            }
+            parts.add(createdDate);
+        }
+
+        return parts.isEmpty() ? new Criteria() : new Criteria().andOperator(parts);
+    }
+}
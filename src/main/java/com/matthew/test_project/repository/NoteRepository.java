@@ -1,16 +1,33 @@
 package com.matthew.test_project.repository;
 
+import com.matthew.test_project.dto.NoteListDto;
 import com.matthew.test_project.model.Note;
-import com.matthew.test_project.model.NoteTag;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.Set;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface NoteRepository extends MongoRepository<Note, UUID> {
-    Page<Note> findByTagsIn(Set<NoteTag> tags, Pageable pageable);
+public interface NoteRepository extends MongoRepository<Note, UUID>, NoteRepositoryCustom {
+    // The list endpoints project straight into NoteListDto so text and tags never leave the server.
+    Page<NoteListDto> findAllBy(Pageable pageable);
+
+    // Slices read size + 1 rows to detect a next page and never run a count query.
+    Slice<NoteListDto> findSliceBy(Pageable pageable);
+
+    List<NoteListDto> findByIdIn(Collection<UUID> ids);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'wordStats': 1 }")
+    Optional<Note> findWordStatsById(UUID id);
+
+    // Just the validators for conditional GETs; the text and word stats stay on the server.
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1, 'lastModified': 1, 'createdDate': 1 }")
+    Optional<Note> findVersionById(UUID id);
 }
@@ -0,0 +1,88 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.model.Note;
+import com.mongodb.lang.Nullable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface NoteRepositoryCustom {
+
+    /**
+     * Inserts {@code notes} in one unordered bulk write, so one bad document does not stop the rest.
+     *
+     * @return error messages keyed by the position in {@code notes} of each document that was not inserted
+     */
+    Map<Integer, String> insertUnordered(List<Note> notes);
+
+    /**
+     * Applies {@code patch} and increments the version in a single findAndModify, optionally only if the
+     * note is still at {@code expectedVersion}. {@link NotePatch#applyTo} gives the note as updated.
+     *
+     * @return the note as it was before the update, without its word stats, or empty if no note matched
+     */
+    Optional<Note> updateFields(UUID id, @Nullable Long expectedVersion, NotePatch patch);
+
+    /**
+     * A page of the notes matching {@code tags}, projected into {@link NoteListDto}, with a count for the total.
+     */
+    Page<NoteListDto> findPage(NoteTagFilter tags, Pageable pageable);
+
+    /**
+     * Like {@link #findPage} but reads one extra row to detect a next page instead of counting.
+     */
+    Slice<NoteListDto> findSlice(NoteTagFilter tags, Pageable pageable);
+
+    long countMatching(NoteTagFilter tags);
+
+    /**
+     * @return the newest {@code lastModified} among the notes matching {@code tags}, or empty if none has one
+     */
+    Optional<LocalDateTime> findLastModified(NoteTagFilter tags);
+
+    /**
+     * Collection size from metadata, without scanning documents.
+     */
+    long estimatedCount();
+
+    /**
+     * Streams the notes matching {@code filter}, carrying only {@code wordStats}, or {@code text} for notes
+     * stored before word stats were precomputed. The stream holds an open cursor and must be closed.
+     */
+    Stream<Note> streamWordSources(NoteFilter filter, int batchSize);
+
+    /**
+     * Streams the notes matching {@code filter} without their word stats, fetching {@code batchSize} documents
+     * per round trip. The stream holds an open cursor and must be closed.
+     */
+    Stream<Note> streamNotes(NoteFilter filter, int batchSize);
+
+    Stream<UUID> streamAllIds(int batchSize);
+
+    /**
+     * Deletes the note in one round trip.
+     *
+     * @return the deleted note carrying only its tags, or empty if there was none
+     */
+    Optional<Note> removeById(UUID id);
+
+    /**
+     * Returns up to {@code limit} notes strictly after {@code after} in newest-first order, as a range scan
+     * on the {@code (createdDate, _id)} indexes instead of skipping earlier documents.
+     */
+    List<NoteListDto> findPageAfter(NoteTagFilter tags, @Nullable NoteCursor after, int limit);
+
+    /**
+     * Returns up to {@code limit} notes with an id below {@code after}, highest id first: newest first when
+     * every note has a time-ordered id.
+     */
+    List<NoteListDto> findPageAfterId(NoteTagFilter tags, @Nullable UUID after, int limit);
+}
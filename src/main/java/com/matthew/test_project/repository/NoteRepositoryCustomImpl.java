@@ -0,0 +1,143 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.model.Note;
+import com.mongodb.lang.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@RequiredArgsConstructor
+public class NoteRepositoryCustomImpl implements NoteRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Note> notes) {
+        if (notes.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Note.class)
+                    .insert(notes)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> failures = new HashMap<>();
+            e.getErrors().forEach(error -> failures.put(error.getIndex(), error.getMessage()));
+            // A failed bulk write publishes no after-save events at all, not even for the notes it did insert;
+            // publish them here so the id filter and the search index see those notes like any other insert.
+            String collection = mongoTemplate.getCollectionName(Note.class);
+            for (int i = 0; i < notes.size(); i++) {
+                if (!failures.containsKey(i)) {
+                    Document document = new Document();
+                    mongoTemplate.getConverter().write(notes.get(i), document);
+                    eventPublisher.publishEvent(new AfterSaveEvent<>(notes.get(i), document, collection));
+                }
+            }
+            return failures;
+        }
+    }
+
+    @Override
+    public Optional<Note> updateFields(UUID id, @Nullable Long expectedVersion, NotePatch patch) {
+        return Optional.ofNullable(mongoTemplate.findAndModify(
+                NoteQueries.updateFields(id, expectedVersion),
+                NoteQueries.update(patch),
+                Note.class
+        ));
+    }
+
+    @Override
+    public Page<NoteListDto> findPage(NoteTagFilter tags, Pageable pageable) {
+        List<NoteListDto> content = mongoTemplate.query(Note.class)
+                .as(NoteListDto.class)
+                .matching(NoteQueries.list(tags, pageable, pageable.getPageSize()))
+                .all();
+        return PageableExecutionUtils.getPage(content, pageable, () -> countMatching(tags));
+    }
+
+    @Override
+    public Slice<NoteListDto> findSlice(NoteTagFilter tags, Pageable pageable) {
+        int size = pageable.getPageSize();
+        List<NoteListDto> rows = mongoTemplate.query(Note.class)
+                .as(NoteListDto.class)
+                .matching(NoteQueries.list(tags, pageable, size + 1))
+                .all();
+        boolean hasNext = rows.size() > size;
+        return new SliceImpl<>(hasNext ? rows.subList(0, size) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public long countMatching(NoteTagFilter tags) {
+        return mongoTemplate.count(NoteQueries.count(tags), Note.class);
+    }
+
+    @Override
+    public Optional<LocalDateTime> findLastModified(NoteTagFilter tags) {
+        return Optional.ofNullable(mongoTemplate.findOne(NoteQueries.lastModified(tags), Note.class))
+                .map(Note::getLastModified);
+    }
+
+    @Override
+    public long estimatedCount() {
+        return mongoTemplate.estimatedCount(Note.class);
+    }
+
+    @Override
+    public Stream<Note> streamWordSources(NoteFilter filter, int batchSize) {
+        return mongoTemplate.aggregateStream(NoteQueries.wordSources(filter, batchSize), Note.class, Note.class);
+    }
+
+    @Override
+    public Stream<Note> streamNotes(NoteFilter filter, int batchSize) {
+        return mongoTemplate.stream(NoteQueries.notes(filter, batchSize), Note.class);
+    }
+
+    @Override
+    public Stream<UUID> streamAllIds(int batchSize) {
+        Query query = new Query().cursorBatchSize(batchSize);
+        query.fields().include("_id");
+        return mongoTemplate.stream(query, Note.class).map(Note::getId);
+    }
+
+    @Override
+    public Optional<Note> removeById(UUID id) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(NoteQueries.tagsById(id), Note.class));
+    }
+
+    @Override
+    public List<NoteListDto> findPageAfter(NoteTagFilter tags, @Nullable NoteCursor after, int limit) {
+        return mongoTemplate.query(Note.class)
+                .as(NoteListDto.class)
+                .matching(NoteQueries.pageAfter(tags, after, limit))
+                .all();
+    }
+
+    @Override
+    public List<NoteListDto> findPageAfterId(NoteTagFilter tags, @Nullable UUID after, int limit) {
+        return mongoTemplate.query(Note.class)
+                .as(NoteListDto.class)
+                .matching(NoteQueries.pageAfterId(tags, after, limit))
+                .all();
+    }
+}
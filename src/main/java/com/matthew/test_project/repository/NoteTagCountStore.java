@@ -0,0 +1,115 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.dto.NoteTagFacetsDto;
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The persisted tag counts: a single document in the {@code counters} collection, changed with {@code $inc}
+ * so that every instance can add its own changes, and recomputable from the notes themselves.
+ */
+@Repository
+@RequiredArgsConstructor
+public class NoteTagCountStore {
+
+    private static final String COLLECTION = "counters";
+    private static final String ID = "noteTags";
+
+    private final MongoTemplate mongoTemplate;
+
+    public Optional<NoteTagFacetsDto> load() {
+        return Optional.ofNullable(mongoTemplate.findById(ID, Document.class, COLLECTION)).map(NoteTagCountStore::toDto);
+    }
+
+    /**
+     * Adds {@code deltas} to the stored counts, creating the document if needed.
+     *
+     * @return the counts after the change, including changes made by other instances
+     */
+    public NoteTagFacetsDto increment(NoteTagFacetsDto deltas) {
+        Update update = new Update()
+                .inc("untagged", deltas.untagged())
+                .inc("total", deltas.total());
+        deltas.tags().forEach((tag, delta) -> update.inc("tags." + tag.name(), delta));
+
+        Document counts = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(ID)),
+                update,
+                FindAndModifyOptions.options().returnNew(true).upsert(true),
+                Document.class,
+                COLLECTION
+        );
+        return toDto(counts);
+    }
+
+    public void replace(NoteTagFacetsDto counts) {
+        Document tags = new Document();
+        counts.tags().forEach((tag, count) -> tags.append(tag.name(), count));
+        mongoTemplate.upsert(
+                new Query(Criteria.where("_id").is(ID)),
+                new Update().set("tags", tags).set("untagged", counts.untagged()).set("total", counts.total()),
+                COLLECTION
+        );
+    }
+
+    /**
+     * Counts the notes per tag mask with an aggregation, at most one row per combination of tags, and adds
+     * each row to the counts of its tags.
+     */
+    public NoteTagFacetsDto count() {
+        Map<NoteTag, Long> tags = emptyTags();
+        long untagged = 0;
+        long total = 0;
+        for (Document row : mongoTemplate.aggregate(
+                Aggregation.newAggregation(Aggregation.group("tags").count().as("count")),
+                mongoTemplate.getCollectionName(Note.class),
+                Document.class
+        )) {
+            int mask = row.get("_id") instanceof Number stored ? stored.intValue() : 0;
+            long count = number(row, "count");
+            if (mask == 0) {
+                untagged += count;
+            }
+            for (NoteTag tag : NoteTag.fromMask(mask)) {
+                tags.merge(tag, count, Long::sum);
+            }
+            total += count;
+        }
+        return new NoteTagFacetsDto(tags, untagged, total);
+    }
+
+    private static NoteTagFacetsDto toDto(Document counts) {
+        Map<NoteTag, Long> tags = emptyTags();
+        Document stored = counts.get("tags", Document.class);
+        if (stored != null) {
+            stored.forEach((tag, count) -> tags.put(NoteTag.valueOf(tag), ((Number) count).longValue()));
+        }
+        return new NoteTagFacetsDto(tags, number(counts, "untagged"), number(counts, "total"));
+    }
+
+    private static long number(Document document, String key) {
+        Object value = document.get(key);
+        return value != null ? ((Number) value).longValue() : 0;
+    }
+
+    private static Map<NoteTag, Long> emptyTags() {
+        Map<NoteTag, Long> tags = new EnumMap<>(NoteTag.class);
+        for (NoteTag tag : NoteTag.values()) {
+            tags.put(tag, 0L);
+        }
+        return tags;
+    }
+}
@@ -0,0 +1,55 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.model.NoteTag;
+import com.mongodb.lang.Nullable;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tag part of the listing and corpus filters: notes with {@link Match#ANY any}, {@link Match#ALL all} or
+ * {@link Match#NONE none} of {@code tags}. Without tags it matches every note, whatever the mode.
+ */
+public record NoteTagFilter(Set<NoteTag> tags, Match match) {
+
+    public static final NoteTagFilter NONE_GIVEN = new NoteTagFilter(EnumSet.noneOf(NoteTag.class), Match.ANY);
+
+    public enum Match {
+        ANY,
+        ALL,
+        NONE
+    }
+
+    public NoteTagFilter {
+        // An EnumSet, so that equal filters are equal keys for the count cache.
+        tags = tags.isEmpty() ? EnumSet.noneOf(NoteTag.class) : EnumSet.copyOf(tags);
+    }
+
+    public static NoteTagFilter of(@Nullable Set<NoteTag> tags, @Nullable Match match) {
+        return tags == null || tags.isEmpty() ? NONE_GIVEN : new NoteTagFilter(tags, match != null ? match : Match.ANY);
+    }
+
+    public static NoteTagFilter any(@Nullable Set<NoteTag> tags) {
+        return of(tags, Match.ANY);
+    }
+
+    public boolean isEmpty() {
+        return tags.isEmpty();
+    }
+
+    public int mask() {
+        return NoteTag.toMask(tags);
+    }
+
+    /**
+     * @return whether a note stored with {@code noteMask} passes this filter
+     */
+    public boolean matches(int noteMask) {
+        int mask = mask();
+        return switch (match) {
+            case ANY -> mask == 0 || (noteMask & mask) != 0;
+            case ALL -> (noteMask & mask) == mask;
+            case NONE -> (noteMask & mask) == 0;
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.schema.JsonSchemaObject;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Converts notes whose tags are anything but the int tag mask that {@link Note} reads, such as an array of
+ * names or no tags at all, to that mask. Names that are not a {@link NoteTag} are logged and dropped. Runs once
+ * every bean is created, so before the web server takes requests and before the search index, id filter and tag
+ * counters read the notes. Converted notes no longer match, so once the collection is converted a start only
+ * costs one scan of a tags index that finds nothing.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class NoteTagMigration implements SmartInitializingSingleton {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final Map<String, NoteTag> TAGS = Arrays.stream(NoteTag.values())
+            .collect(Collectors.toMap(NoteTag::name, tag -> tag));
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long converted = migrate();
+        if (converted > 0) {
+            log.info("Converted the tags of {} notes to tag masks", converted);
+        }
+    }
+
+    /**
+     * @return the number of notes converted
+     */
+    public long migrate() {
+        String collection = mongoTemplate.getCollectionName(Note.class);
+        // Also missing and null tags; anything that is not a mask is converted, whatever names it holds.
+        Query legacy = new Query(Criteria.where("tags").not().type(JsonSchemaObject.Type.INT_32)).limit(BATCH_SIZE);
+        legacy.fields().include("tags");
+
+        long converted = 0;
+        while (true) {
+            List<Document> batch = mongoTemplate.find(legacy, Document.class, collection);
+            if (batch.isEmpty()) {
+                return converted;
+            }
+
+            BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, collection);
+            for (Document note : batch) {
+                Object stored = note.get("tags");
+                // Only while the tags are as read: a concurrent update has already written a mask.
+                bulk.updateOne(
+                        new Query(Criteria.where("_id").is(note.get("_id")).and("tags").is(stored)),
+                        Update.update("tags", toMask(note.get("_id"), stored))
+                );
+            }
+            int modified = bulk.execute().getModifiedCount();
+            if (modified == 0) {
+                // Every note of the batch changed under us; reading them again would loop.
+                log.warn("Stopped converting tags, {} notes could not be converted", batch.size());
+                return converted;
+            }
+            converted += modified;
+        }
+    }
+
+    private static int toMask(Object id, Object stored) {
+        if (stored instanceof Number mask) {
+            // A mask written as a long or double, e.g. by hand.
+            return mask.intValue();
+        }
+        List<?> names = stored instanceof List<?> list ? list : stored != null ? List.of(stored) : List.of();
+        int mask = 0;
+        for (Object name : names) {
+            NoteTag tag = name != null ? TAGS.get(name.toString()) : null;
+            if (tag != null) {
+                mask |= tag.mask();
+            } else {
+                log.warn("Dropping unknown tag {} of note {}", name, id);
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,27 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.model.Note;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Non-blocking counterpart of {@link NoteRepository}, only created with the {@code reactive} profile.
+ */
+@Repository
+public interface ReactiveNoteRepository extends ReactiveMongoRepository<Note, UUID>, ReactiveNoteRepositoryCustom {
+
+    Flux<NoteListDto> findByIdIn(Collection<UUID> ids);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'wordStats': 1 }")
+    Mono<Note> findWordStatsById(UUID id);
+
+    @Query(value = "{ '_id': ?0 }", fields = "{ 'version': 1, 'lastModified': 1, 'createdDate': 1 }")
+    Mono<Note> findVersionById(UUID id);
+}
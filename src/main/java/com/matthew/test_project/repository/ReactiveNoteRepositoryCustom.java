@@ -0,0 +1,66 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.model.Note;
+import com.mongodb.lang.Nullable;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Reactive versions of the {@link NoteRepositoryCustom} operations. Every {@code Flux} reads from a cursor
+ * and only fetches further batches as the subscriber requests them.
+ */
+public interface ReactiveNoteRepositoryCustom {
+
+    /**
+     * Returns {@code limit} rows of the listing starting at {@code pageable}'s offset, projected into
+     * {@link NoteListDto}. Passing one more than the page size detects a next page without a count.
+     */
+    Flux<NoteListDto> findList(NoteTagFilter tags, Pageable pageable, int limit);
+
+    /**
+     * @see NoteRepositoryCustom#countMatching
+     */
+    Mono<Long> countMatching(NoteTagFilter tags);
+
+    /**
+     * @see NoteRepositoryCustom#findLastModified
+     */
+    Mono<LocalDateTime> findLastModified(NoteTagFilter tags);
+
+    /**
+     * @see NoteRepositoryCustom#updateFields
+     */
+    Mono<Note> updateFields(UUID id, @Nullable Long expectedVersion, NotePatch patch);
+
+    Mono<Long> estimatedCount();
+
+    /**
+     * @see NoteRepositoryCustom#streamWordSources
+     */
+    Flux<Note> streamWordSources(NoteFilter filter, int batchSize);
+
+    /**
+     * @see NoteRepositoryCustom#streamNotes
+     */
+    Flux<Note> streamNotes(NoteFilter filter, int batchSize);
+
+    /**
+     * @see NoteRepositoryCustom#removeById
+     */
+    Mono<Note> removeById(UUID id);
+
+    /**
+     * @see NoteRepositoryCustom#findPageAfter
+     */
+    Flux<NoteListDto> findPageAfter(NoteTagFilter tags, @Nullable NoteCursor after, int limit);
+
+    /**
+     * @see NoteRepositoryCustom#findPageAfterId
+     */
+    Flux<NoteListDto> findPageAfterId(NoteTagFilter tags, @Nullable UUID after, int limit);
+}
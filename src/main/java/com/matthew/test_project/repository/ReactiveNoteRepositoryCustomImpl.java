@@ -0,0 +1,83 @@
+package com.matthew.test_project.repository;
+
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.model.Note;
+import com.mongodb.lang.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+public class ReactiveNoteRepositoryCustomImpl implements ReactiveNoteRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Flux<NoteListDto> findList(NoteTagFilter tags, Pageable pageable, int limit) {
+        return mongoTemplate.query(Note.class)
+                .as(NoteListDto.class)
+                .matching(NoteQueries.list(tags, pageable, limit))
+                .all();
+    }
+
+    @Override
+    public Mono<Long> countMatching(NoteTagFilter tags) {
+        return mongoTemplate.count(NoteQueries.count(tags), Note.class);
+    }
+
+    @Override
+    public Mono<Note> updateFields(UUID id, @Nullable Long expectedVersion, NotePatch patch) {
+        return mongoTemplate.findAndModify(
+                NoteQueries.updateFields(id, expectedVersion),
+                NoteQueries.update(patch),
+                Note.class
+        );
+    }
+
+    @Override
+    public Mono<LocalDateTime> findLastModified(NoteTagFilter tags) {
+        return mongoTemplate.findOne(NoteQueries.lastModified(tags), Note.class)
+                .mapNotNull(Note::getLastModified);
+    }
+
+    @Override
+    public Mono<Long> estimatedCount() {
+        return mongoTemplate.estimatedCount(Note.class);
+    }
+
+    @Override
+    public Flux<Note> streamWordSources(NoteFilter filter, int batchSize) {
+        return mongoTemplate.aggregate(NoteQueries.wordSources(filter, batchSize), Note.class, Note.class);
+    }
+
+    @Override
+    public Flux<Note> streamNotes(NoteFilter filter, int batchSize) {
+        return mongoTemplate.find(NoteQueries.notes(filter, batchSize), Note.class);
+    }
+
+    @Override
+    public Mono<Note> removeById(UUID id) {
+        return mongoTemplate.findAndRemove(NoteQueries.tagsById(id), Note.class);
+    }
+
+    @Override
+    public Flux<NoteListDto> findPageAfter(NoteTagFilter tags, @Nullable NoteCursor after, int limit) {
+        return mongoTemplate.query(Note.class)
+                .as(NoteListDto.class)
+                .matching(NoteQueries.pageAfter(tags, after, limit))
+                .all();
+    }
+
+    @Override
+    public Flux<NoteListDto> findPageAfterId(NoteTagFilter tags, @Nullable UUID after, int limit) {
+        return mongoTemplate.query(Note.class)
+                .as(NoteListDto.class)
+                .matching(NoteQueries.pageAfterId(tags, after, limit))
+                .all();
+    }
+}
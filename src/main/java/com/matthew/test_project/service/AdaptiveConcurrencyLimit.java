@@ -0,0 +1,121 @@
+package com.matthew.test_project.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit that follows latency, after the gradient algorithm of Netflix's concurrency-limits.
+ * <p>
+ * The lowest recent latency, smoothed over a few requests, serves as the baseline: what a request costs without
+ * queueing. Every request that completes while at least half the limit is in use moves the limit towards
+ * {@code limit * gradient + sqrt(limit)}, where the gradient is {@code tolerance * baseline / latency} clamped to
+ * {@code [0.5, 1]}. While latency stays within {@code tolerance} times the baseline the limit keeps growing by
+ * about the square root term; once requests queue behind it, in the connection pool or in MongoDB, and latency
+ * rises, it shrinks by up to half. The baseline is re-taken every window, so the limit follows a service that
+ * became slower for good as well as one that became faster. Requests over the limit are not queued:
+ * {@link #tryAcquire()} fails at once.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    // Latency is averaged over about ten requests, so a single cache hit does not pass for the baseline.
+    private static final double LATENCY_WEIGHT = 2.0 / 11;
+    private static final double SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final int baselineWindow;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // Not a monitor: every limited request samples on release, and a virtual thread waiting to enter a
+    // contended monitor pins its carrier.
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    // Guarded by sampleLock.
+    private double estimatedLimit;
+    private double latencyNanos;
+    private double baselineNanos = Double.MAX_VALUE;
+    private double windowMinNanos = Double.MAX_VALUE;
+    private int windowSamples;
+
+    /**
+     * @param tolerance      how many times the baseline latency is still taken as no queueing
+     * @param baselineWindow number of requests after which the baseline is re-taken as the lowest latency among them
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, int baselineWindow) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException(
+                    "Need 1 <= min <= initial <= max, got " + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.baselineWindow = baselineWindow;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Takes a permit if fewer than {@link #limit()} requests are in flight. A permit must be returned with
+     * {@link #release}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Returns a permit and adjusts the limit to how long the request held it.
+     */
+    public void release(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        sample(latencyNanos, inFlightBefore);
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    void sample(long sampleNanos, int inFlight) {
+        sampleLock.lock();
+        try {
+            sampleLocked(sampleNanos, inFlight);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    private void sampleLocked(long sampleNanos, int inFlight) {
+        double sample = Math.max(1, sampleNanos);
+        latencyNanos = latencyNanos == 0 ? sample : latencyNanos + (sample - latencyNanos) * LATENCY_WEIGHT;
+        baselineNanos = Math.min(baselineNanos, latencyNanos);
+        windowMinNanos = Math.min(windowMinNanos, latencyNanos);
+        if (++windowSamples >= baselineWindow) {
+            baselineNanos = windowMinNanos;
+            windowMinNanos = Double.MAX_VALUE;
+            windowSamples = 0;
+        }
+
+        // A limit that is not used says nothing about how much concurrency the service takes.
+        if (inFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineNanos / latencyNanos));
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit,
+                estimatedLimit * (1 - SMOOTHING) + target * SMOOTHING));
+        limit = (int) estimatedLimit;
+    }
+}
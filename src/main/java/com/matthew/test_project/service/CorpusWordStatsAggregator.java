@@ -0,0 +1,117 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteFilter;
+import com.matthew.test_project.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+
+/**
+ * Word frequencies across every note matching a {@link NoteFilter}.
+ * <p>
+ * Notes are read from a cursor in batches. Each batch is counted on the fork-join pool while the next one
+ * is being read, every leaf task fills its own {@link WordFrequencyCounter}, and the partial counters are
+ * merged on join. At most two batches are held in memory at any time.
+ */
+@Component
+public class CorpusWordStatsAggregator {
+
+    // Below this many notes a task counts sequentially instead of splitting further.
+    private static final int SEQUENTIAL_THRESHOLD = 64;
+
+    private final NoteRepository noteRepository;
+    private final NoteMetrics noteMetrics;
+    private final ForkJoinPool pool;
+    private final int batchSize;
+
+    public CorpusWordStatsAggregator(
+            NoteRepository noteRepository,
+            NoteMetrics noteMetrics,
+            @Value("${notes.word-stats.batch-size:1000}") int batchSize
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteMetrics = noteMetrics;
+        this.pool = ForkJoinPool.commonPool();
+        this.batchSize = batchSize;
+    }
+
+    public Map<String, Long> aggregate(NoteFilter filter, int top) {
+        WordFrequencyCounter total = new WordFrequencyCounter();
+        ForkJoinTask<WordFrequencyCounter> pending = null;
+        long counted = 0;
+
+        try (Stream<Note> notes = noteRepository.streamWordSources(filter, batchSize)) {
+            Iterator<Note> cursor = notes.iterator();
+            List<Note> batch = new ArrayList<>(batchSize);
+
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize || !cursor.hasNext()) {
+                    if (pending != null) {
+                        total.merge(pending.join());
+                    }
+                    pending = pool.submit(new CountTask(batch, 0, batch.size()));
+                    counted += batch.size();
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+
+        if (pending != null) {
+            total.merge(pending.join());
+        }
+
+        noteMetrics.corpusNotes(counted);
+        return total.top(top);
+    }
+
+    private static final class CountTask extends RecursiveTask<WordFrequencyCounter> {
+
+        private final List<Note> notes;
+        private final int from;
+        private final int to;
+
+        CountTask(List<Note> notes, int from, int to) {
+            this.notes = notes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected WordFrequencyCounter compute() {
+            if (to - from <= SEQUENTIAL_THRESHOLD) {
+                WordFrequencyCounter counter = new WordFrequencyCounter();
+                for (int i = from; i < to; i++) {
+                    count(notes.get(i), counter);
+                }
+                return counter;
+            }
+
+            int middle = (from + to) >>> 1;
+            CountTask left = new CountTask(notes, from, middle);
+            left.fork();
+            WordFrequencyCounter right = new CountTask(notes, middle, to).compute();
+            WordFrequencyCounter merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+
+        private static void count(Note note, WordFrequencyCounter counter) {
+            Map<String, Long> stats = note.getWordStats();
+            if (stats != null) {
+                stats.forEach(counter::add);
+            } else {
+                counter.add(note.getText());
+            }
+        }
+    }
+}
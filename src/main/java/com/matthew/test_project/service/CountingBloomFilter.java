@@ -0,0 +1,124 @@
+package com.matthew.test_project.service;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counting Bloom filter over note ids with 4-bit counters, sixteen to a {@code long}, updated with CAS so
+ * readers never lock.
+ * <p>
+ * {@link #mightContain} never returns {@code false} for an id that was added and not removed. A counter
+ * that reaches 15 saturates and is never decremented again, which can only add false positives.
+ */
+public final class CountingBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final long SATURATED = 0xFL;
+
+    private final AtomicLongArray words;
+    private final long counters;
+    private final int hashFunctions;
+
+    private CountingBloomFilter(long counters, int hashFunctions) {
+        long wordCount = (counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + counters + " counters");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.counters = wordCount * COUNTERS_PER_WORD;
+        this.hashFunctions = hashFunctions;
+    }
+
+    /**
+     * Sizes the filter for {@code expectedInsertions} ids at a false positive probability of {@code fpp}.
+     */
+    public static CountingBloomFilter create(long expectedInsertions, double fpp) {
+        if (expectedInsertions < 1 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("expectedInsertions must be positive and fpp in (0, 1)");
+        }
+        double ln2 = Math.log(2);
+        long counters = Math.max(COUNTERS_PER_WORD, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (ln2 * ln2)));
+        int hashFunctions = Math.max(1, (int) Math.round((double) counters / expectedInsertions * ln2));
+        return new CountingBloomFilter(counters, hashFunctions);
+    }
+
+    public void add(UUID id) {
+        long h1 = h1(id);
+        long h2 = h2(id);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(h1, h2, i), 1);
+        }
+    }
+
+    /**
+     * Removes an id that was previously added. Removing an id that was never added can cause false
+     * negatives for other ids, so this is a no-op when the id is definitely absent.
+     */
+    public void remove(UUID id) {
+        if (!mightContain(id)) {
+            return;
+        }
+        long h1 = h1(id);
+        long h2 = h2(id);
+        for (int i = 0; i < hashFunctions; i++) {
+            update(index(h1, h2, i), -1);
+        }
+    }
+
+    public boolean mightContain(UUID id) {
+        long h1 = h1(id);
+        long h2 = h2(id);
+        for (int i = 0; i < hashFunctions; i++) {
+            if (counter(index(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long counter(long index) {
+        long word = words.get((int) (index / COUNTERS_PER_WORD));
+        return (word >>> shift(index)) & COUNTER_MASK;
+    }
+
+    private void update(long index, int delta) {
+        int wordIndex = (int) (index / COUNTERS_PER_WORD);
+        int shift = shift(index);
+        while (true) {
+            long word = words.get(wordIndex);
+            long counter = (word >>> shift) & COUNTER_MASK;
+            if (counter == SATURATED || (delta < 0 && counter == 0)) {
+                return;
+            }
+            long updated = delta > 0 ? word + (1L << shift) : word - (1L << shift);
+            if (words.compareAndSet(wordIndex, word, updated)) {
+                return;
+            }
+        }
+    }
+
+    private long index(long h1, long h2, int i) {
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private static int shift(long index) {
+        return (int) (index % COUNTERS_PER_WORD) * 4;
+    }
+
+    private static long h1(UUID id) {
+        return mix(id.getMostSignificantBits() ^ Long.rotateLeft(id.getLeastSignificantBits(), 29));
+    }
+
+    // Forced odd so successive probes never collapse onto one counter.
+    private static long h2(UUID id) {
+        return mix(id.getLeastSignificantBits() + 0x9E3779B97F4A7C15L * id.getMostSignificantBits()) | 1L;
+    }
+
+    // SplitMix64 finalizer.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,368 @@
+package com.matthew.test_project.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Word-to-note index ranked with BM25, using the same words as {@link WordFrequencyCounter}.
+ * <p>
+ * Notes get internal document numbers in the order they are indexed, and every word keeps parallel
+ * {@code int} arrays of document numbers and in-document counts, so postings stay sorted without ever being
+ * re-sorted. Re-indexing or removing a note only marks its old document dead; the dead documents are
+ * dropped and the rest renumbered once they outnumber the live ones, along with the words no live document
+ * uses any more. Every document keeps the version of the note it was indexed from, and a put older than that
+ * is ignored, so concurrent updates of a note leave its newest words whatever order they arrive in. Searches
+ * share a read lock, changes take the write lock.
+ */
+final class InvertedIndex {
+
+    // Usual BM25 defaults: term-frequency saturation and document-length normalisation.
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MIN_COMPACTION = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private Postings[] postings = new Postings[16];
+    private int termCount;
+
+    private final Map<UUID, Integer> documents = new HashMap<>();
+    // Indexed by document number; a null note marks a dead document.
+    private UUID[] notes = new UUID[16];
+    private int[] lengths = new int[16];
+    private long[] versions = new long[16];
+    private int[][] documentTerms = new int[16][];
+    private int documentCount;
+    private long totalLength;
+
+    // Notes put or removed since a rebuild started, which its older snapshot must not overwrite; null otherwise.
+    private Set<UUID> written;
+
+    /**
+     * An index to rebuild from a snapshot with {@link #putUnlessWritten} while it already takes the regular
+     * writes, until {@link #rebuilt()}.
+     */
+    static InvertedIndex forRebuild() {
+        InvertedIndex index = new InvertedIndex();
+        index.written = new HashSet<>();
+        return index;
+    }
+
+    /**
+     * Indexes the words of {@code fields} for {@code note} at {@code version}, replacing whatever was indexed
+     * for it before unless that came from a later version.
+     */
+    void put(UUID note, long version, String... fields) {
+        WordFrequencyCounter counter = new WordFrequencyCounter();
+        for (String field : fields) {
+            counter.add(field);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (isNewer(note, version)) {
+                return;
+            }
+            if (written != null) {
+                written.add(note);
+            }
+            removeLocked(note);
+            add(note, version, counter);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(UUID note) {
+        lock.writeLock().lock();
+        try {
+            if (written != null) {
+                written.add(note);
+            }
+            removeLocked(note);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Indexes {@code note} from a rebuild's snapshot, unless it was put or removed since the rebuild started:
+     * that write is newer than the snapshot.
+     */
+    void putUnlessWritten(UUID note, long version, String... fields) {
+        WordFrequencyCounter counter = new WordFrequencyCounter();
+        for (String field : fields) {
+            counter.add(field);
+        }
+
+        lock.writeLock().lock();
+        try {
+            if ((written == null || !written.contains(note)) && !isNewer(note, version)) {
+                removeLocked(note);
+                add(note, version, counter);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ends the rebuild started by {@link #forRebuild()}; the notes written meanwhile are no longer tracked.
+     */
+    void rebuilt() {
+        lock.writeLock().lock();
+        try {
+            written = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return termIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} notes containing any word of {@code query}, best match first; equal scores
+     * put the more recently indexed note first
+     */
+    List<Hit> search(String query, int limit) {
+        List<String> words = new ArrayList<>();
+        new WordFrequencyCounter().add(query).forEach((word, count) -> words.add(word));
+
+        lock.readLock().lock();
+        try {
+            int live = documents.size();
+            if (live == 0 || words.isEmpty()) {
+                return List.of();
+            }
+            float averageLength = (float) totalLength / live;
+            float[] scores = new float[documentCount];
+            int[] matched = new int[16];
+            int matchedCount = 0;
+
+            for (String word : words) {
+                Integer termId = termIds.get(word);
+                if (termId == null) {
+                    continue;
+                }
+                Postings termPostings = postings[termId];
+                float idf = (float) Math.log(1 + (live - termPostings.live + 0.5) / (termPostings.live + 0.5));
+
+                for (int i = 0; i < termPostings.size; i++) {
+                    int document = termPostings.documents[i];
+                    if (notes[document] == null) {
+                        continue;
+                    }
+                    int frequency = termPostings.frequencies[i];
+                    float normalisedLength = 1 - B + B * lengths[document] / averageLength;
+                    if (scores[document] == 0) {
+                        if (matchedCount == matched.length) {
+                            matched = Arrays.copyOf(matched, matchedCount * 2);
+                        }
+                        matched[matchedCount++] = document;
+                    }
+                    scores[document] += idf * frequency * (K1 + 1) / (frequency + K1 * normalisedLength);
+                }
+            }
+
+            // Min-heap of the best {@code limit} documents seen so far.
+            PriorityQueue<Integer> best = new PriorityQueue<>(Math.min(limit, matchedCount) + 1,
+                    (a, b) -> scores[a] != scores[b] ? Float.compare(scores[a], scores[b]) : Integer.compare(a, b));
+            for (int i = 0; i < matchedCount; i++) {
+                best.add(matched[i]);
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+
+            Hit[] hits = new Hit[best.size()];
+            for (int i = hits.length - 1; i >= 0; i--) {
+                int document = best.poll();
+                hits[i] = new Hit(notes[document], scores[document]);
+            }
+            return Arrays.asList(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Whether what is indexed for the note came from a version later than {@code version}.
+    private boolean isNewer(UUID note, long version) {
+        Integer document = documents.get(note);
+        return document != null && versions[document] > version;
+    }
+
+    private void add(UUID note, long version, WordFrequencyCounter counter) {
+        int document = documentCount++;
+        if (document == notes.length) {
+            int capacity = document * 2;
+            notes = Arrays.copyOf(notes, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+        }
+
+        int[] terms = new int[counter.size()];
+        int[] length = new int[1];
+        int[] next = new int[1];
+        counter.forEach((word, count) -> {
+            int termId = termId(word);
+            postings[termId].add(document, (int) count);
+            terms[next[0]++] = termId;
+            length[0] += (int) count;
+        });
+
+        notes[document] = note;
+        lengths[document] = length[0];
+        versions[document] = version;
+        documentTerms[document] = terms;
+        documents.put(note, document);
+        totalLength += length[0];
+    }
+
+    private void removeLocked(UUID note) {
+        Integer document = documents.remove(note);
+        if (document == null) {
+            return;
+        }
+        for (int termId : documentTerms[document]) {
+            postings[termId].live--;
+        }
+        totalLength -= lengths[document];
+        notes[document] = null;
+        documentTerms[document] = null;
+    }
+
+    private int termId(String word) {
+        Integer existing = termIds.get(word);
+        if (existing != null) {
+            return existing;
+        }
+        if (termCount == postings.length) {
+            postings = Arrays.copyOf(postings, termCount * 2);
+        }
+        postings[termCount] = new Postings();
+        termIds.put(word, termCount);
+        return termCount++;
+    }
+
+    private void compactIfNeeded() {
+        int dead = documentCount - documents.size();
+        if (dead < MIN_COMPACTION || dead < documents.size()) {
+            return;
+        }
+
+        int[] renumbered = new int[documentCount];
+        int live = 0;
+        for (int document = 0; document < documentCount; document++) {
+            if (notes[document] == null) {
+                renumbered[document] = -1;
+                continue;
+            }
+            renumbered[document] = live;
+            notes[live] = notes[document];
+            lengths[live] = lengths[document];
+            versions[live] = versions[document];
+            documentTerms[live] = documentTerms[document];
+            documents.put(notes[live], live);
+            live++;
+        }
+        Arrays.fill(notes, live, documentCount, null);
+        Arrays.fill(documentTerms, live, documentCount, null);
+        documentCount = live;
+
+        for (int termId = 0; termId < termCount; termId++) {
+            postings[termId].renumber(renumbered);
+        }
+        pruneTerms();
+    }
+
+    // Words that only dead documents used have no postings left after a compaction; dropping them keeps the
+    // vocabulary to the words of live notes however often notes are edited or deleted.
+    private void pruneTerms() {
+        int[] renumbered = new int[termCount];
+        int kept = 0;
+        for (int termId = 0; termId < termCount; termId++) {
+            if (postings[termId].size == 0) {
+                renumbered[termId] = -1;
+                continue;
+            }
+            renumbered[termId] = kept;
+            postings[kept++] = postings[termId];
+        }
+        if (kept == termCount) {
+            return;
+        }
+        Arrays.fill(postings, kept, termCount, null);
+        termCount = kept;
+        termIds.entrySet().removeIf(term -> renumbered[term.getValue()] < 0);
+        termIds.replaceAll((word, termId) -> renumbered[termId]);
+        for (int document = 0; document < documentCount; document++) {
+            int[] terms = documentTerms[document];
+            for (int i = 0; i < terms.length; i++) {
+                terms[i] = renumbered[terms[i]];
+            }
+        }
+    }
+
+    record Hit(UUID note, float score) {}
+
+    private static final class Postings {
+
+        private int[] documents = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+        // Postings of live documents, the document frequency BM25 needs.
+        private int live;
+
+        void add(int document, int frequency) {
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            documents[size] = document;
+            frequencies[size] = frequency;
+            size++;
+            live++;
+        }
+
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int document = renumbered[documents[i]];
+                if (document >= 0) {
+                    documents[kept] = document;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
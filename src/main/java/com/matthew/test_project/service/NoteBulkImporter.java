@@ -0,0 +1,120 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.dto.NoteBulkCreateResultDto;
+import com.matthew.test_project.dto.NoteBulkItemResultDto;
+import com.matthew.test_project.dto.NoteBulkItemResultDto.Status;
+import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Bulk note creation: items are validated one by one and written in unordered bulk inserts of
+ * {@code notes.bulk.chunk-size} documents, so only one chunk is held in memory at a time.
+ */
+@Component
+public class NoteBulkImporter {
+
+    private final NoteRepository noteRepository;
+    private final NoteMapper noteMapper;
+    private final NoteMetrics noteMetrics;
+    private final NoteTagCounters noteTagCounters;
+    private final Validator validator;
+    private final int chunkSize;
+
+    public NoteBulkImporter(
+            NoteRepository noteRepository,
+            NoteMapper noteMapper,
+            NoteMetrics noteMetrics,
+            NoteTagCounters noteTagCounters,
+            Validator validator,
+            @Value("${notes.bulk.chunk-size:1000}") int chunkSize
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteMapper = noteMapper;
+        this.noteMetrics = noteMetrics;
+        this.noteTagCounters = noteTagCounters;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+    }
+
+    public NoteBulkCreateResultDto importAll(Iterator<NoteCreateDto> items) {
+        List<NoteBulkItemResultDto> results = new ArrayList<>();
+        List<Note> chunk = new ArrayList<>(chunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(chunkSize);
+
+        for (int index = 0; ; index++) {
+            NoteCreateDto dto;
+            try {
+                if (!items.hasNext()) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                // The input itself is broken; nothing after this point can be read.
+                results.add(rejected(index, Status.INVALID, "body", "Malformed request body"));
+                break;
+            }
+            try {
+                dto = items.next();
+            } catch (RuntimeException e) {
+                results.add(rejected(index, Status.INVALID, "body", "Invalid item"));
+                continue;
+            }
+
+            Map<String, String> errors = validate(dto);
+            if (!errors.isEmpty()) {
+                results.add(new NoteBulkItemResultDto(index, Status.INVALID, null, errors));
+                continue;
+            }
+
+            noteMetrics.wordStatsInput("bulk", dto.getText());
+            chunk.add(noteMapper.toNewNote(dto));
+            chunkIndexes.add(index);
+            if (chunk.size() == chunkSize) {
+                flush(chunk, chunkIndexes, results);
+            }
+        }
+        flush(chunk, chunkIndexes, results);
+
+        results.sort(Comparator.comparingInt(NoteBulkItemResultDto::index));
+        int created = (int) results.stream().filter(result -> result.status() == Status.CREATED).count();
+        return new NoteBulkCreateResultDto(created, results.size() - created, results);
+    }
+
+    private void flush(List<Note> chunk, List<Integer> chunkIndexes, List<NoteBulkItemResultDto> results) {
+        Map<Integer, String> failures = noteRepository.insertUnordered(chunk);
+
+        for (int i = 0; i < chunk.size(); i++) {
+            String failure = failures.get(i);
+            if (failure == null) {
+                noteTagCounters.created(chunk.get(i).getTags());
+                results.add(new NoteBulkItemResultDto(chunkIndexes.get(i), Status.CREATED, chunk.get(i).getId(), null));
+            } else {
+                results.add(rejected(chunkIndexes.get(i), Status.FAILED, "write", failure));
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+    }
+
+    private Map<String, String> validate(NoteCreateDto dto) {
+        if (dto == null) {
+            return Map.of("body", "Item must not be null");
+        }
+        Set<ConstraintViolation<NoteCreateDto>> violations = validator.validate(dto);
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<NoteCreateDto> violation : violations) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
+    }
+
+    private static NoteBulkItemResultDto rejected(int index, Status status, String field, String message) {
+        return new NoteBulkItemResultDto(index, status, null, Map.of(field, message));
+    }
+}
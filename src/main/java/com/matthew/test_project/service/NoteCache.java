@@ -0,0 +1,84 @@
+package com.matthew.test_project.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.matthew.test_project.dto.NoteCacheStatsDto;
+import com.matthew.test_project.model.Note;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * In-process read-through cache of whole {@link Note} documents, including their word stats.
+ * <p>
+ * Bounded by {@code notes.cache.maximum-size} with Caffeine's W-TinyLFU eviction and expired
+ * {@code notes.cache.expire-after-write} after loading. Missing ids are never cached. Cached notes are
+ * shared between requests and must not be modified.
+ */
+@Component
+public class NoteCache {
+
+    private final AsyncCache<UUID, Note> cache;
+
+    public NoteCache(
+            @Value("${notes.cache.maximum-size:10000}") long maximumSize,
+            @Value("${notes.cache.expire-after-write:10m}") Duration expireAfterWrite
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+    }
+
+    /**
+     * The loader runs on the calling thread rather than inside the cache's map bin, so a Mongo read issued
+     * from a virtual thread never pins its carrier. Concurrent misses for the same id wait for the first
+     * load, and an {@link #invalidate} during a load discards its result.
+     */
+    public Optional<Note> get(UUID id, Function<UUID, Optional<Note>> loader) {
+        CompletableFuture<Note> pending = new CompletableFuture<>();
+        CompletableFuture<Note> future = cache.get(id, (key, executor) -> pending);
+        if (future == pending) {
+            try {
+                pending.complete(loader.apply(id).orElse(null));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return Optional.ofNullable(future.join());
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    public Note getIfPresent(UUID id) {
+        return cache.synchronous().getIfPresent(id);
+    }
+
+    public void invalidate(UUID id) {
+        cache.synchronous().invalidate(id);
+    }
+
+    public NoteCacheStatsDto stats() {
+        Cache<UUID, Note> cache = this.cache.synchronous();
+        CacheStats stats = cache.stats();
+        return new NoteCacheStatsDto(
+                cache.estimatedSize(),
+                stats.hitCount(),
+                stats.missCount(),
+                stats.hitRate(),
+                stats.evictionCount()
+        );
+    }
+}
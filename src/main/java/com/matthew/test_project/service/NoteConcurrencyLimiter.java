@@ -0,0 +1,95 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.config.ConcurrencyLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Load shedding for {@code /api/notes}. With {@code notes.concurrency-limit.enabled}, every request is admitted
+ * against one of two {@link AdaptiveConcurrencyLimit}s: an expensive budget for requests that aggregate or scan
+ * many notes, so a burst of them cannot crowd out single-note reads and writes, and a cheap budget for the rest.
+ * A request over its budget's limit gets 503 with {@code Retry-After} at once instead of waiting for a thread
+ * and a connection it would likely time out on. Admin and actuator endpoints are never limited. Off by default.
+ */
+@Component
+public class NoteConcurrencyLimiter {
+
+    private final boolean enabled;
+    private final Duration retryAfter;
+    private final AdaptiveConcurrencyLimit expensive;
+    private final AdaptiveConcurrencyLimit cheap;
+    private final Counter expensiveRejected;
+    private final Counter cheapRejected;
+
+    public NoteConcurrencyLimiter(ConcurrencyLimitProperties properties, MeterRegistry registry) {
+        this.enabled = properties.enabled();
+        this.retryAfter = properties.retryAfter();
+        this.expensive = limit(properties.expensive(), properties);
+        this.cheap = limit(properties.cheap(), properties);
+        this.expensiveRejected = register(registry, "expensive", expensive);
+        this.cheapRejected = register(registry, "cheap", cheap);
+    }
+
+    /**
+     * @param tagFiltered whether the request has a {@code tags} parameter
+     * @return the limit the request is admitted against, or {@code null} if it is not limited
+     */
+    @Nullable
+    public AdaptiveConcurrencyLimit limitFor(String method, String path, boolean tagFiltered) {
+        if (!enabled || !path.startsWith("/api/notes")) {
+            return null;
+        }
+        return isExpensive(method, path, tagFiltered) ? expensive : cheap;
+    }
+
+    public void rejected(AdaptiveConcurrencyLimit limit) {
+        (limit == expensive ? expensiveRejected : cheapRejected).increment();
+    }
+
+    public String budgetName(AdaptiveConcurrencyLimit limit) {
+        return limit == expensive ? "expensive" : "cheap";
+    }
+
+    /**
+     * @return the {@code Retry-After} for rejected requests; the header only takes whole seconds, so this is
+     * rounded up rather than have clients come back early
+     */
+    public long retryAfterSeconds() {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    private static boolean isExpensive(String method, String path, boolean tagFiltered) {
+        return switch (path) {
+            case "/api/notes/word-stats", "/api/notes/export", "/api/notes/bulk" -> true;
+            // Listings filtered by tag cannot use the createdDate indexes alone and count or skip through more.
+            case "/api/notes", "/api/notes/slice", "/api/notes/cursor" -> tagFiltered && "GET".equals(method);
+            default -> false;
+        };
+    }
+
+    private static AdaptiveConcurrencyLimit limit(
+            ConcurrencyLimitProperties.Budget budget, ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimit(budget.initialLimit(), budget.minLimit(), budget.maxLimit(),
+                properties.tolerance(), properties.baselineWindow());
+    }
+
+    private static Counter register(MeterRegistry registry, String budget, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("notes.concurrency.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Current concurrency limit of a request budget")
+                .tag("budget", budget)
+                .register(registry);
+        Gauge.builder("notes.concurrency.in_flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests in flight against a request budget")
+                .tag("budget", budget)
+                .register(registry);
+        return Counter.builder("notes.concurrency.rejected")
+                .description("Requests turned away with 503 because their budget was at its limit")
+                .tag("budget", budget)
+                .register(registry);
+    }
+}
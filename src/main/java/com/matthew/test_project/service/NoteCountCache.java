@@ -0,0 +1,48 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.repository.NoteTagFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Approximate note totals for the slice listing. The unfiltered total comes from the collection metadata;
+ * per-tag-filter counts are real count queries cached for {@code notes.count-cache.ttl}.
+ */
+@Component
+public class NoteCountCache {
+
+    private final NoteRepository noteRepository;
+    private final long ttlNanos;
+    private final Map<NoteTagFilter, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public NoteCountCache(
+            NoteRepository noteRepository,
+            @Value("${notes.count-cache.ttl:30s}") Duration ttl
+    ) {
+        this.noteRepository = noteRepository;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    public long count(NoteTagFilter tags) {
+        if (tags.isEmpty()) {
+            return noteRepository.estimatedCount();
+        }
+
+        long now = System.nanoTime();
+        CachedCount cached = counts.get(tags);
+        if (cached != null && now - cached.loadedAt() < ttlNanos) {
+            return cached.count();
+        }
+
+        long count = noteRepository.countMatching(tags);
+        counts.put(tags, new CachedCount(count, now));
+        return count;
+    }
+
+    private record CachedCount(long count, long loadedAt) {}
+}
@@ -0,0 +1,104 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Remembers which note ids exist so lookups of ids that were never stored can answer 404 without a Mongo
+ * round trip.
+ * <p>
+ * Every saved or inserted note is added through the mapping events, deletes are removed explicitly, and
+ * the whole filter is rebuilt from the collection at startup. Until that rebuild has finished every id is
+ * reported as possibly present. The filter only sees writes made by this instance, so a note created by
+ * another instance would answer 404 here; it is off unless {@code notes.id-filter.enabled} is set, which only
+ * deployments with a single instance writing to the collection should do.
+ */
+@Slf4j
+@Component
+public class NoteIdFilter extends AbstractMongoEventListener<Note> {
+
+    private static final int REBUILD_BATCH_SIZE = 5000;
+
+    private final NoteRepository noteRepository;
+    private final boolean enabled;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile CountingBloomFilter active;
+    // Filter being rebuilt; concurrent inserts go to it as well so none are missed.
+    private volatile CountingBloomFilter building;
+
+    public NoteIdFilter(
+            NoteRepository noteRepository,
+            @Value("${notes.id-filter.enabled:false}") boolean enabled,
+            @Value("${notes.id-filter.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${notes.id-filter.false-positive-rate:0.01}") double falsePositiveRate
+    ) {
+        this.noteRepository = noteRepository;
+        this.enabled = enabled;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    /**
+     * @return {@code false} only if no note with this id exists
+     */
+    public boolean mightExist(UUID id) {
+        CountingBloomFilter filter = active;
+        return filter == null || filter.mightContain(id);
+    }
+
+    public void removed(UUID id) {
+        CountingBloomFilter filter = active;
+        if (filter != null) {
+            filter.remove(id);
+        }
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Note> event) {
+        UUID id = event.getSource().getId();
+        if (id == null) {
+            return;
+        }
+        // Read building before active: rebuild() publishes the new filter as active before it clears building,
+        // so a save that finds building already cleared is sure to find the new filter in active.
+        CountingBloomFilter rebuilding = building;
+        CountingBloomFilter filter = active;
+        if (rebuilding != null) {
+            rebuilding.add(id);
+        }
+        if (filter != null && filter != rebuilding) {
+            filter.add(id);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+
+        CountingBloomFilter fresh = CountingBloomFilter.create(expectedInsertions, falsePositiveRate);
+        building = fresh;
+        try (Stream<UUID> ids = noteRepository.streamAllIds(REBUILD_BATCH_SIZE)) {
+            ids.forEach(fresh::add);
+            active = fresh;
+        } catch (RuntimeException e) {
+            // Without a complete filter every lookup simply goes to Mongo.
+            log.warn("Could not build the note id filter, lookups will not be short-circuited", e);
+        } finally {
+            building = null;
+        }
+    }
+}
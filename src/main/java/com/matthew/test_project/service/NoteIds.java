@@ -0,0 +1,52 @@
+package com.matthew.test_project.service;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered note ids in the UUIDv7 layout: 48 bits of Unix milliseconds, the version, a 12-bit counter,
+ * the variant and 62 random bits.
+ * <p>
+ * With {@code UuidRepresentation.STANDARD} the id is stored as binary subtype 4 in RFC byte order, which
+ * MongoDB compares byte by byte, so {@code _id} order is creation order: inserts append to the right edge of
+ * the {@code _id} index, and newest-first listing can walk that index. Ids from one process are strictly
+ * increasing; the counter orders ids within a millisecond and, once it runs out, borrows the next one.
+ */
+public final class NoteIds {
+
+    private static final int COUNTER_BITS = 12;
+
+    // Milliseconds and counter of the last id, packed as (millis << 12 | counter).
+    private static final AtomicLong last = new AtomicLong();
+
+    private NoteIds() {
+    }
+
+    public static UUID timeOrdered() {
+        return timeOrdered(System.currentTimeMillis());
+    }
+
+    /**
+     * @param epochMillis creation time to encode; the id is never older than the last one issued
+     */
+    public static UUID timeOrdered(long epochMillis) {
+        long state = last.updateAndGet(previous -> Math.max(previous + 1, epochMillis << COUNTER_BITS));
+        long millis = state >>> COUNTER_BITS;
+        long counter = state & ((1L << COUNTER_BITS) - 1);
+
+        long mostSignificant = millis << 16 | 0x7000L | counter;
+        long leastSignificant = ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * @return the Unix milliseconds encoded in a {@link #timeOrdered()} id
+     */
+    public static long epochMillis(UUID id) {
+        if (id.version() != 7) {
+            throw new IllegalArgumentException("Not a time-ordered id: " + id);
+        }
+        return id.getMostSignificantBits() >>> 16;
+    }
+}
@@ -1,18 +1,65 @@
 package com.matthew.test_project.service;
 
+import com.matthew.test_project.dto.NoteCreateDto;
 import com.matthew.test_project.dto.NoteDetailDto;
+import com.matthew.test_project.dto.NoteVersionDto;
 import com.matthew.test_project.model.Note;
+import com.mongodb.lang.Nullable;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
 @Service
 public class NoteMapper {
 
+    public Note toNewNote(NoteCreateDto dto) {
+        Instant created = Instant.now();
+        LocalDateTime now = LocalDateTime.ofInstant(created, ZoneId.systemDefault());
+        return Note.builder()
+                .id(NoteIds.timeOrdered(created.toEpochMilli()))
+                .title(dto.getTitle())
+                .text(dto.getText())
+                .tags(dto.getTags())
+                .createdDate(now)
+                .lastModified(now)
+                .version(0L)
+                .wordStats(WordFrequencyCounter.frequencies(dto.getText()))
+                .build();
+    }
+
     public NoteDetailDto toDetailDto(Note note) {
         return new NoteDetailDto(
                 note.getTitle(),
                 note.getCreatedDate(),
                 note.getText(),
-                note.getTags()
+                note.getTags(),
+                note.getVersion(),
+                lastModified(note)
+        );
+    }
+
+    /**
+     * Validators of a note read without its body: the version for the ETag and the last modification time.
+     */
+    public NoteVersionDto toVersionDto(Note note) {
+        return new NoteVersionDto(
+                String.valueOf(note.getVersion() != null ? note.getVersion() : 0L),
+                lastModified(note)
         );
     }
+
+    /**
+     * Validators of a listing: any create or delete changes the count, any create or update the newest
+     * modification time.
+     */
+    public NoteVersionDto toListVersionDto(long count, @Nullable LocalDateTime lastModified) {
+        return new NoteVersionDto(count + "-" + (lastModified != null ? lastModified : "0"), lastModified);
+    }
+
+    private static LocalDateTime lastModified(Note note) {
+        // Notes not written since lastModified was introduced were last modified no later than created.
+        return note.getLastModified() != null ? note.getLastModified() : note.getCreatedDate();
+    }
 }
@@ -0,0 +1,54 @@
+package com.matthew.test_project.service;
+
+import com.mongodb.lang.Nullable;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes of the inputs the word-stats code works on and of write-behind batches. Service and Mongo command
+ * latencies are recorded by {@code @Timed} and the driver listeners; these show what those latencies depend on.
+ */
+@Component
+public class NoteMetrics {
+
+    private final MeterRegistry registry;
+    private final DistributionSummary corpusNotes;
+    private final DistributionSummary writeBehindBatches;
+
+    public NoteMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.corpusNotes = DistributionSummary.builder("notes.word_stats.corpus.notes")
+                .description("Notes counted by one corpus word-stats request")
+                .baseUnit("notes")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.writeBehindBatches = DistributionSummary.builder("notes.write_behind.batch")
+                .description("Notes written by one write-behind bulk insert")
+                .baseUnit("notes")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * Records the length of a text about to be tokenized; {@code source} is what triggered it: create, bulk,
+     * update, or legacy for notes stored before word stats were.
+     */
+    public void wordStatsInput(String source, @Nullable String text) {
+        DistributionSummary.builder("notes.word_stats.input")
+                .description("Characters tokenized to compute a note's word stats")
+                .baseUnit("characters")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(text != null ? text.length() : 0);
+    }
+
+    public void corpusNotes(long notes) {
+        corpusNotes.record(notes);
+    }
+
+    public void writeBehindBatch(int notes) {
+        writeBehindBatches.record(notes);
+    }
+}
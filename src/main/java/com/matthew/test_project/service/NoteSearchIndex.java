@@ -0,0 +1,96 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteFilter;
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.repository.NoteTagFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Keyword search over note titles and texts from an in-process {@link InvertedIndex}.
+ * <p>
+ * Saved and inserted notes are indexed through the mapping events, updates and deletes are applied
+ * explicitly, and the whole index is rebuilt from the collection at startup; until then only notes written
+ * since startup are found. Like {@link NoteIdFilter}, it only sees writes made by this instance.
+ */
+@Slf4j
+@Component
+public class NoteSearchIndex extends AbstractMongoEventListener<Note> {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final NoteRepository noteRepository;
+
+    private volatile InvertedIndex active = new InvertedIndex();
+    // Index being rebuilt; writes go to it as well, and it keeps them over the older notes the rebuild reads.
+    private volatile InvertedIndex building;
+
+    public NoteSearchIndex(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    /**
+     * @return ids of up to {@code limit} notes containing any word of {@code query}, best match first
+     */
+    List<InvertedIndex.Hit> search(String query, int limit) {
+        return active.search(query, limit);
+    }
+
+    public void put(Note note) {
+        apply(index -> index.put(note.getId(), version(note), note.getTitle(), note.getText()));
+    }
+
+    public void removed(UUID id) {
+        apply(index -> index.remove(id));
+    }
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<Note> event) {
+        if (event.getSource().getId() != null) {
+            put(event.getSource());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        InvertedIndex fresh = InvertedIndex.forRebuild();
+        building = fresh;
+        try (Stream<Note> notes = noteRepository.streamNotes(new NoteFilter(NoteTagFilter.NONE_GIVEN, null, null), REBUILD_BATCH_SIZE)) {
+            notes.forEach(note -> fresh.putUnlessWritten(note.getId(), version(note), note.getTitle(), note.getText()));
+            fresh.rebuilt();
+            active = fresh;
+            log.info("Search index built with {} notes", fresh.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not build the search index, only notes written since startup will be found", e);
+        } finally {
+            building = null;
+        }
+    }
+
+    private static long version(Note note) {
+        return note.getVersion() != null ? note.getVersion() : 0L;
+    }
+
+    private void apply(Consumer<InvertedIndex> change) {
+        // Read building before active: rebuild() publishes the new index as active before it clears building,
+        // so a write that finds building already cleared is sure to find the new index in active.
+        InvertedIndex rebuilding = building;
+        InvertedIndex current = active;
+        if (rebuilding != null) {
+            change.accept(rebuilding);
+        }
+        if (current != rebuilding) {
+            change.accept(current);
+        }
+    }
+}
@@ -1,29 +1,91 @@
 package com.matthew.test_project.service;
 
+import com.matthew.test_project.dto.NoteBulkCreateResultDto;
 import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteCursorPageDto;
 import com.matthew.test_project.dto.NoteDetailDto;
 import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.dto.NoteSearchHitDto;
+import com.matthew.test_project.dto.NoteSliceDto;
+import com.matthew.test_project.dto.NoteTagFacetsDto;
 import com.matthew.test_project.dto.NoteUpdateDto;
-import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.dto.NoteVersionDto;
+import com.matthew.test_project.dto.NoteVersionedPageDto;
+import com.matthew.test_project.repository.NoteTagFilter;
 import com.mongodb.lang.Nullable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface NoteService {
 
     NoteDetailDto create(NoteCreateDto dto);
 
-    Page<NoteListDto> findAll(@Nullable Set<NoteTag> tags, Pageable pageable);
+    /**
+     * Validates and inserts every item, continuing past invalid or failed ones. {@code items} may throw
+     * from {@code next()} for an item that could not be parsed.
+     */
+    NoteBulkCreateResultDto createAll(Iterator<NoteCreateDto> items);
+
+    Page<NoteListDto> findAll(NoteTagFilter tags, Pageable pageable);
+
+    /**
+     * Like {@link #findAll}, with the validators {@link #getListVersion} would answer taken from the same
+     * count.
+     */
+    NoteVersionedPageDto findAllVersioned(NoteTagFilter tags, Pageable pageable);
+
+    NoteSliceDto findSlice(NoteTagFilter tags, Pageable pageable, boolean withTotal);
+
+    NoteCursorPageDto findAllAfter(NoteTagFilter tags, @Nullable String after, int size);
+
+    /**
+     * Notes whose title or text contains any word of {@code query}, ranked with BM25, best match first.
+     */
+    List<NoteSearchHitDto> search(@Nullable String query, int size);
+
+    /**
+     * Note counts per tag and without tags, from counters kept up to date by every write.
+     */
+    NoteTagFacetsDto getTagFacets();
 
     NoteDetailDto findById(UUID id);
 
+    /**
+     * Validators of the note, read without its text or word stats.
+     */
+    NoteVersionDto getVersion(UUID id);
+
+    /**
+     * Validators of the listing filtered by {@code tags}, from a count and the newest modification time.
+     */
+    NoteVersionDto getListVersion(NoteTagFilter tags);
+
     NoteDetailDto update(UUID id, NoteUpdateDto dto);
 
     void delete(UUID id);
 
-    Map<String, Long> getWordFrequency(UUID id);
+    Map<String, Long> getWordFrequency(UUID id, @Nullable Integer top);
+
+    /**
+     * Streams every matching note from an open cursor; the caller must close the stream.
+     */
+    Stream<NoteDetailDto> exportNotes(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to
+    );
+
+    Map<String, Long> getCorpusWordFrequency(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to,
+            int top
+    );
 }
@@ -1,140 +1,317 @@
 package com.matthew.test_project.service;
 
+import com.matthew.test_project.config.NoteListingProperties;
+import com.matthew.test_project.dto.NoteBulkCreateResultDto;
 import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteCursorPageDto;
 import com.matthew.test_project.dto.NoteDetailDto;
 import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.dto.NoteSearchHitDto;
+import com.matthew.test_project.dto.NoteSliceDto;
+import com.matthew.test_project.dto.NoteTagFacetsDto;
 import com.matthew.test_project.dto.NoteUpdateDto;
+import com.matthew.test_project.dto.NoteVersionDto;
+import com.matthew.test_project.dto.NoteVersionedPageDto;
+import com.matthew.test_project.exception.BadRequestException;
 import com.matthew.test_project.exception.NoteNotFoundException;
+import com.matthew.test_project.exception.NoteVersionConflictException;
 import com.matthew.test_project.model.Note;
-import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteCursor;
+import com.matthew.test_project.repository.NoteFilter;
+import com.matthew.test_project.repository.NotePatch;
 import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.repository.NoteTagFilter;
 import com.mongodb.lang.Nullable;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "notes.service", histogram = true)
 @RequiredArgsConstructor
 public class NoteServiceImpl implements NoteService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int EXPORT_BATCH_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final NoteRepository noteRepository;
     private final NoteMapper noteMapper;
+    private final CorpusWordStatsAggregator corpusWordStatsAggregator;
+    private final NoteCountCache noteCountCache;
+    private final NoteCache noteCache;
+    private final NoteBulkImporter noteBulkImporter;
+    private final NoteIdFilter noteIdFilter;
+    private final NoteMetrics noteMetrics;
+    private final NoteSearchIndex noteSearchIndex;
+    private final NoteWriteBehind noteWriteBehind;
+    private final NoteListingProperties noteListingProperties;
+    private final NoteTagCounters noteTagCounters;
 
     @Override
     public NoteDetailDto create(NoteCreateDto dto) {
+        noteMetrics.wordStatsInput("create", dto.getText());
+        Note note = noteMapper.toNewNote(dto);
 
-        Note note = Note.builder()
-                .id(UUID.randomUUID())
-                .title(dto.getTitle())
-                .text(dto.getText())
-                .tags(dto.getTags() != null ? new HashSet<>(dto.getTags()) : new HashSet<>())
-                .createdDate(LocalDateTime.now())
-                .build();
-
-        Note saved = noteRepository.save(note);
+        Note saved = noteWriteBehind.isEnabled() ? noteWriteBehind.insert(note) : noteRepository.save(note);
+        noteTagCounters.created(saved.getTags());
         return noteMapper.toDetailDto(saved);
     }
 
     @Override
-    public Page<NoteListDto> findAll(@Nullable Set<NoteTag> tags, Pageable pageable) {
-        Page<Note> page;
+    public NoteBulkCreateResultDto createAll(Iterator<NoteCreateDto> items) {
+        return noteBulkImporter.importAll(items);
+    }
+
+    @Override
+    public Page<NoteListDto> findAll(NoteTagFilter tags, Pageable pageable) {
+        if (tags.isEmpty()) {
+            return noteRepository.findAllBy(pageable);
+        }
+        return noteRepository.findPage(tags, pageable);
+    }
+
+    @Override
+    public NoteVersionedPageDto findAllVersioned(NoteTagFilter tags, Pageable pageable) {
+        // Time first, as in getListVersion; the page's total then stands in for the separate count.
+        LocalDateTime lastModified = noteRepository.findLastModified(tags).orElse(null);
+        Page<NoteListDto> page = findAll(tags, pageable);
+        return new NoteVersionedPageDto(page, noteMapper.toListVersionDto(page.getTotalElements(), lastModified));
+    }
+
+    @Override
+    public NoteSliceDto findSlice(NoteTagFilter tags, Pageable pageable, boolean withTotal) {
+        Slice<NoteListDto> slice = tags.isEmpty()
+                ? noteRepository.findSliceBy(pageable)
+                : noteRepository.findSlice(tags, pageable);
+
+        Long total = withTotal ? noteCountCache.count(tags) : null;
+        return new NoteSliceDto(slice.getContent(), slice.getNumber(), slice.getSize(), slice.hasNext(), total);
+    }
+
+    @Override
+    public NoteCursorPageDto findAllAfter(NoteTagFilter tags, @Nullable String after, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+
+        NoteCursor cursor = null;
+        if (after != null && !after.isEmpty()) {
+            try {
+                cursor = NoteCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Invalid cursor: " + after);
+            }
+        }
 
-        if (tags == null || tags.isEmpty()) {
-            page = noteRepository.findAll(pageable);
-        } else {
-            page = noteRepository.findByTagsIn(tags, pageable);
+        // One extra row tells whether another page exists without a count query.
+        List<NoteListDto> rows = noteListingProperties.orderById()
+                ? noteRepository.findPageAfterId(tags, cursor != null ? cursor.id() : null, size + 1)
+                : noteRepository.findPageAfter(tags, cursor, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<NoteListDto> content = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            NoteListDto last = content.get(content.size() - 1);
+            nextCursor = new NoteCursor(last.createdDate(), last.id()).encode();
+        }
+        return new NoteCursorPageDto(content, nextCursor, hasNext);
+    }
+
+    @Override
+    public List<NoteSearchHitDto> search(@Nullable String query, int size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("q must not be blank");
+        }
+        if (size < 1 || size > MAX_SEARCH_RESULTS) {
+            throw new BadRequestException("size must be between 1 and " + MAX_SEARCH_RESULTS);
         }
 
-        return page.map(note -> new NoteListDto(note.getId(), note.getTitle(), note.getCreatedDate()));
+        List<InvertedIndex.Hit> hits = noteSearchIndex.search(query, size);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<UUID, NoteListDto> notes = noteRepository.findByIdIn(hits.stream().map(InvertedIndex.Hit::note).toList())
+                .stream()
+                .collect(Collectors.toMap(NoteListDto::id, Function.identity()));
+        return toSearchHits(hits, notes);
+    }
 
+    @Override
+    public NoteTagFacetsDto getTagFacets() {
+        return noteTagCounters.facets();
     }
 
     @Override
     public NoteDetailDto findById(UUID id) {
-        Note note = noteRepository.findById(id)
+        requireMightExist(id);
+        Note note = noteCache.get(id, noteRepository::findById)
                 .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + id));
 
         return noteMapper.toDetailDto(note);
     }
 
     @Override
-    public NoteDetailDto update(UUID id, NoteUpdateDto dto) {
-        Note note = noteRepository.findById(id)
-                .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + id));
+    public NoteVersionDto getVersion(UUID id) {
+        requireMightExist(id);
+        Note cached = noteCache.getIfPresent(id);
+        Note note = cached != null
+                ? cached
+                : noteRepository.findVersionById(id)
+                        .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + id));
+
+        return noteMapper.toVersionDto(note);
+    }
 
-        if (dto.getTitle() != null) {
-            note.setTitle(dto.getTitle());
-        }
+    @Override
+    public NoteVersionDto getListVersion(NoteTagFilter tags) {
+        // Read the time first: a write landing in between then only makes the validator look older.
+        LocalDateTime lastModified = noteRepository.findLastModified(tags).orElse(null);
+        long count = tags.isEmpty() ? noteRepository.count() : noteRepository.countMatching(tags);
+        return noteMapper.toListVersionDto(count, lastModified);
+    }
+
+    @Override
+    public NoteDetailDto update(UUID id, NoteUpdateDto dto) {
+        requireMightExist(id);
         if (dto.getText() != null) {
-            note.setText(dto.getText());
+            noteMetrics.wordStatsInput("update", dto.getText());
+        }
+        NotePatch patch = new NotePatch(
+                dto.getTitle(),
+                dto.getText(),
+                dto.getText() != null ? WordFrequencyCounter.frequencies(dto.getText()) : null,
+                dto.getTags(),
+                LocalDateTime.now()
+        );
+
+        Note previous = noteRepository.updateFields(id, dto.getVersion(), patch)
+                .orElseThrow(() -> dto.getVersion() != null && noteRepository.existsById(id)
+                        ? new NoteVersionConflictException(
+                                "Note " + id + " is no longer at version " + dto.getVersion())
+                        : new NoteNotFoundException("Note not found with id: " + id));
+        Note updated = patch.applyTo(previous);
+
+        noteCache.invalidate(id);
+        if (dto.getTitle() != null || dto.getText() != null) {
+            noteSearchIndex.put(updated);
         }
         if (dto.getTags() != null) {
-            note.setTags(dto.getTags());
+            noteTagCounters.updated(previous.getTags(), updated.getTags());
         }
-
-        Note updated = noteRepository.save(note);
         return noteMapper.toDetailDto(updated);
     }
 
     @Override
     public void delete(UUID id) {
-        if (!noteRepository.existsById(id)) {
-            throw new NoteNotFoundException("Note not found with id: " + id);
-        }
-        noteRepository.deleteById(id);
+        requireMightExist(id);
+        Note removed = noteRepository.removeById(id)
+                .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + id));
+        noteCache.invalidate(id);
+        noteTagCounters.deleted(removed.getTags());
+        noteIdFilter.removed(id);
+        noteSearchIndex.removed(id);
     }
 
     @Override
-    public Map<String, Long> getWordFrequency(UUID id) {
-        Note note = noteRepository.findById(id)
-                .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + id));
-
-        String text = note.getText();
-        if (text == null || text.trim().isEmpty()) {
-            return Collections.emptyMap();
+    public Map<String, Long> getWordFrequency(UUID id, @Nullable Integer top) {
+        if (top != null && top < 1) {
+            throw new BadRequestException("top must be a positive number");
         }
 
-        String cleaned = text.toLowerCase()
-                .replaceAll("[^a-zа-яё0-9\\s]", " ")
-                .replaceAll("\\s+", " ")
-                .trim();
-
-        ArrayList<String> words = new ArrayList<>(Arrays.asList(cleaned.split("\\s+")));
-
-        Map<String, Long> frequency = new HashMap<>();
-
-        for (int i = 0; i < words.size(); i++) {
-
-            String currentWord = words.get(i);
+        requireMightExist(id);
+
+        // A cached note already carries its stats; otherwise read just the stats, not the whole document.
+        Note cached = noteCache.getIfPresent(id);
+        Note note = cached != null
+                ? cached
+                : noteRepository.findWordStatsById(id)
+                        .orElseThrow(() -> new NoteNotFoundException("Note not found with id: " + id));
+
+        Map<String, Long> stats = note.getWordStats();
+        if (stats == null) {
+            // Written before word stats were stored with the note.
+            String text = cached != null
+                    ? cached.getText()
+                    : noteRepository.findById(id).map(Note::getText).orElse(null);
+            noteMetrics.wordStatsInput("legacy", text);
+            WordFrequencyCounter counter = new WordFrequencyCounter().add(text);
+            return top != null ? counter.top(top) : counter.toSortedMap();
+        }
 
-            if (frequency.containsKey(currentWord)) {
-                continue;
+        if (top == null || top >= stats.size()) {
+            return stats;
+        }
+        Map<String, Long> limited = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : stats.entrySet()) {
+            if (limited.size() == top) {
+                break;
             }
+            limited.put(entry.getKey(), entry.getValue());
+        }
+        return limited;
+    }
 
-            long count = 0;
-
-            for (int j = i; j < words.size(); j++) {
-                if (currentWord.equals(words.get(j))) {
-                    count++;
-                }
-            }
+    @Override
+    public Stream<NoteDetailDto> exportNotes(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to
+    ) {
+        NoteFilter filter = new NoteFilter(tags, from, to);
+        validateRange(filter);
+        return noteRepository.streamNotes(filter, EXPORT_BATCH_SIZE).map(noteMapper::toDetailDto);
+    }
 
-            frequency.put(currentWord, count);
+    @Override
+    public Map<String, Long> getCorpusWordFrequency(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to,
+            int top
+    ) {
+        if (top < 1) {
+            throw new BadRequestException("top must be a positive number");
         }
-        List<Map.Entry<String, Long>> list = new ArrayList<>(frequency.entrySet());
+        NoteFilter filter = new NoteFilter(tags, from, to);
+        validateRange(filter);
+        return corpusWordStatsAggregator.aggregate(filter, top);
+    }
 
-        Collections.sort(list, (a, b) -> b.getValue().compareTo(a.getValue()));
+    private void requireMightExist(UUID id) {
+        if (!noteIdFilter.mightExist(id)) {
+            throw new NoteNotFoundException("Note not found with id: " + id);
+        }
+    }
 
-        Map<String, Long> sorted = new LinkedHashMap<>();
-        for (Map.Entry<String, Long> entry : list) {
-            sorted.put(entry.getKey(), entry.getValue());
+    /**
+     * Keeps the ranking order and drops hits whose note is gone.
+     */
+    static List<NoteSearchHitDto> toSearchHits(List<InvertedIndex.Hit> hits, Map<UUID, NoteListDto> notes) {
+        List<NoteSearchHitDto> result = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit hit : hits) {
+            NoteListDto note = notes.get(hit.note());
+            if (note != null) {
+                result.add(new NoteSearchHitDto(note.id(), note.title(), note.createdDate(), hit.score()));
+            }
         }
+        return result;
+    }
 
-        return sorted;
+    private static void validateRange(NoteFilter filter) {
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            throw new BadRequestException("from must be before to");
+        }
     }
 
 }
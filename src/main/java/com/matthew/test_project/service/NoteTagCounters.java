@@ -0,0 +1,168 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.dto.NoteTagFacetsDto;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteTagCountStore;
+import com.mongodb.lang.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Note counts per tag without counting queries. Writes only add to in-memory {@link LongAdder}s, reported by
+ * the services once a create, tag change or delete has been written. Every
+ * {@code notes.facets.flush-interval} the accumulated changes are added to the persisted counts, which also
+ * brings in other instances' changes; every {@code notes.facets.reconcile-interval} the persisted counts are
+ * recomputed from the notes, which corrects any drift, give or take writes made while that runs. A read during
+ * a flush may miss the changes being flushed, but never counts them twice.
+ */
+@Slf4j
+@Component
+public class NoteTagCounters {
+
+    private final NoteTagCountStore store;
+    // Not a monitor: flush and reconcile wait on MongoDB, and reconcile also runs on request threads.
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    // Changes not yet added to the persisted counts.
+    private final Map<NoteTag, LongAdder> pendingTags = new EnumMap<>(NoteTag.class);
+    private final LongAdder pendingUntagged = new LongAdder();
+    private final LongAdder pendingTotal = new LongAdder();
+
+    private volatile NoteTagFacetsDto persisted;
+
+    public NoteTagCounters(NoteTagCountStore store) {
+        this.store = store;
+        Map<NoteTag, Long> zeros = new EnumMap<>(NoteTag.class);
+        for (NoteTag tag : NoteTag.values()) {
+            pendingTags.put(tag, new LongAdder());
+            zeros.put(tag, 0L);
+        }
+        this.persisted = new NoteTagFacetsDto(zeros, 0, 0);
+    }
+
+    /**
+     * Current counts. Until the persisted counts are loaded at startup, only this instance's changes since
+     * then.
+     */
+    public NoteTagFacetsDto facets() {
+        NoteTagFacetsDto base = persisted;
+        Map<NoteTag, Long> tags = new EnumMap<>(NoteTag.class);
+        pendingTags.forEach((tag, pending) -> tags.put(tag, base.tags().getOrDefault(tag, 0L) + pending.sum()));
+        return new NoteTagFacetsDto(tags, base.untagged() + pendingUntagged.sum(), base.total() + pendingTotal.sum());
+    }
+
+    public void created(@Nullable Set<NoteTag> tags) {
+        add(tags, 1, true);
+    }
+
+    public void updated(@Nullable Set<NoteTag> before, @Nullable Set<NoteTag> after) {
+        add(before, -1, false);
+        add(after, 1, false);
+    }
+
+    public void deleted(@Nullable Set<NoteTag> tags) {
+        add(tags, -1, true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        try {
+            NoteTagFacetsDto stored = store.load().orElse(null);
+            if (stored != null) {
+                persisted = stored;
+            } else {
+                reconcile();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not load the tag counts, they are only corrected by the next reconcile", e);
+        }
+    }
+
+    /**
+     * Adds the changes made since the last flush to the persisted counts and picks up the result.
+     */
+    @Scheduled(fixedDelayString = "${notes.facets.flush-interval:PT5S}")
+    @PreDestroy
+    public void flush() {
+        writeLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        Map<NoteTag, Long> tags = new EnumMap<>(NoteTag.class);
+        boolean changed = false;
+        for (Map.Entry<NoteTag, LongAdder> entry : pendingTags.entrySet()) {
+            long delta = entry.getValue().sum();
+            tags.put(entry.getKey(), delta);
+            changed |= delta != 0;
+        }
+        NoteTagFacetsDto deltas = new NoteTagFacetsDto(tags, pendingUntagged.sum(), pendingTotal.sum());
+        if (!changed && deltas.untagged() == 0 && deltas.total() == 0) {
+            return;
+        }
+
+        // Out of pending before the store has them, so facets() never sees them in both; changes made meanwhile
+        // stay pending for the next flush.
+        addPending(deltas, -1);
+        try {
+            persisted = store.increment(deltas);
+        } catch (RuntimeException e) {
+            addPending(deltas, 1);
+            log.warn("Could not persist the tag counts, retrying with the next flush", e);
+        }
+    }
+
+    /**
+     * Recomputes the persisted counts from the notes.
+     */
+    @Scheduled(
+            initialDelayString = "${notes.facets.reconcile-interval:PT1H}",
+            fixedDelayString = "${notes.facets.reconcile-interval:PT1H}"
+    )
+    public NoteTagFacetsDto reconcile() {
+        writeLock.lock();
+        try {
+            flushLocked();
+            NoteTagFacetsDto counts = store.count();
+            store.replace(counts);
+            persisted = counts;
+            log.info("Tag counts reconciled: {}", counts);
+        } finally {
+            writeLock.unlock();
+        }
+        return facets();
+    }
+
+    private void addPending(NoteTagFacetsDto deltas, int sign) {
+        deltas.tags().forEach((tag, delta) -> pendingTags.get(tag).add(sign * delta));
+        pendingUntagged.add(sign * deltas.untagged());
+        pendingTotal.add(sign * deltas.total());
+    }
+
+    private void add(@Nullable Set<NoteTag> tags, int delta, boolean countNote) {
+        if (tags == null || tags.isEmpty()) {
+            pendingUntagged.add(delta);
+        } else {
+            for (NoteTag tag : tags) {
+                pendingTags.get(tag).add(delta);
+            }
+        }
+        if (countNote) {
+            pendingTotal.add(delta);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single-note creates. With {@code notes.write-behind.enabled}, callers put their note on a
+ * queue of {@code notes.write-behind.queue-capacity} and wait; one flusher thread drains it into unordered
+ * bulk inserts of up to {@code notes.write-behind.batch-size} notes, flushing a partial batch once its first
+ * note has waited {@code notes.write-behind.max-delay}. Every caller returns when the batch holding its note
+ * is acknowledged, so nothing is reported as created before MongoDB has it. A full queue blocks callers
+ * until the flusher catches up. Off by default, when every create is its own insert.
+ */
+@Slf4j
+@Component
+public class NoteWriteBehind {
+
+    private final NoteRepository noteRepository;
+    private final NoteMetrics noteMetrics;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<PendingInsert> queue;
+
+    private volatile boolean running = true;
+    private final Thread flusher;
+
+    public NoteWriteBehind(
+            NoteRepository noteRepository,
+            NoteMetrics noteMetrics,
+            @Value("${notes.write-behind.enabled:false}") boolean enabled,
+            @Value("${notes.write-behind.batch-size:100}") int batchSize,
+            @Value("${notes.write-behind.max-delay:5ms}") Duration maxDelay,
+            @Value("${notes.write-behind.queue-capacity:10000}") int queueCapacity
+    ) {
+        this.noteRepository = noteRepository;
+        this.noteMetrics = noteMetrics;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flusher = enabled ? Thread.ofPlatform().name("note-write-behind").daemon().start(this::flushLoop) : null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues {@code note} for the next batch and waits until that batch has been written.
+     *
+     * @return the inserted note
+     */
+    public Note insert(Note note) {
+        if (!running) {
+            throw new IllegalStateException("Write-behind is shut down");
+        }
+        PendingInsert pending = new PendingInsert(note, new CompletableFuture<>());
+        try {
+            while (!queue.offer(pending, 100, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    throw new IllegalStateException("Write-behind is shut down");
+                }
+            }
+            // Shut down since the check above: close() may already have drained the queue, leaving nobody to
+            // complete this note. Whoever took it off the queue answers for it; if nobody has, take it back.
+            if (!running && queue.remove(pending)) {
+                throw new IllegalStateException("Write-behind is shut down");
+            }
+            return pending.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the note to be written", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Stops taking new notes and writes the ones already queued.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        if (flusher != null) {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        // Only left over if the flusher gave up; release their callers rather than leave them waiting.
+        List<PendingInsert> unwritten = new ArrayList<>();
+        queue.drainTo(unwritten);
+        unwritten.forEach(pending -> pending.result()
+                .completeExceptionally(new IllegalStateException("Write-behind is shut down")));
+    }
+
+    private void flushLoop() {
+        List<PendingInsert> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < batchSize) {
+                    // Take whatever is already queued without waiting, then wait out the rest of the delay.
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingInsert next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Nothing interrupts the flusher on purpose; write what was collected so its callers return.
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingInsert> batch) {
+        noteMetrics.writeBehindBatch(batch.size());
+        List<Note> notes = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            notes.add(pending.note());
+        }
+
+        Map<Integer, String> failures;
+        try {
+            failures = noteRepository.insertUnordered(notes);
+        } catch (RuntimeException e) {
+            log.warn("Write-behind batch of {} notes failed", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            String failure = failures.get(i);
+            if (failure == null) {
+                batch.get(i).result().complete(notes.get(i));
+            } else {
+                batch.get(i).result().completeExceptionally(new DataIntegrityViolationException(failure));
+            }
+        }
+    }
+
+    private record PendingInsert(Note note, CompletableFuture<Note> result) {}
+}
@@ -0,0 +1,72 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteCursorPageDto;
+import com.matthew.test_project.dto.NoteDetailDto;
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.dto.NoteSearchHitDto;
+import com.matthew.test_project.dto.NoteSliceDto;
+import com.matthew.test_project.dto.NoteTagFacetsDto;
+import com.matthew.test_project.dto.NoteUpdateDto;
+import com.matthew.test_project.dto.NoteVersionDto;
+import com.matthew.test_project.dto.NoteVersionedPageDto;
+import com.matthew.test_project.repository.NoteTagFilter;
+import com.mongodb.lang.Nullable;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Non-blocking {@link NoteService} for the {@code reactive} profile. Errors are signalled with the same
+ * exceptions as the blocking service.
+ */
+public interface ReactiveNoteService {
+
+    Mono<NoteDetailDto> create(NoteCreateDto dto);
+
+    Mono<Page<NoteListDto>> findAll(NoteTagFilter tags, Pageable pageable);
+
+    Mono<NoteVersionedPageDto> findAllVersioned(NoteTagFilter tags, Pageable pageable);
+
+    Mono<NoteSliceDto> findSlice(NoteTagFilter tags, Pageable pageable, boolean withTotal);
+
+    Mono<NoteCursorPageDto> findAllAfter(NoteTagFilter tags, @Nullable String after, int size);
+
+    Mono<List<NoteSearchHitDto>> search(@Nullable String query, int size);
+
+    Mono<NoteTagFacetsDto> getTagFacets();
+
+    Mono<NoteDetailDto> findById(UUID id);
+
+    Mono<NoteVersionDto> getVersion(UUID id);
+
+    Mono<NoteVersionDto> getListVersion(NoteTagFilter tags);
+
+    Mono<NoteDetailDto> update(UUID id, NoteUpdateDto dto);
+
+    Mono<Void> delete(UUID id);
+
+    Mono<Map<String, Long>> getWordFrequency(UUID id, @Nullable Integer top);
+
+    /**
+     * Emits every matching note, reading further cursor batches only as the subscriber requests them.
+     */
+    Flux<NoteDetailDto> exportNotes(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to
+    );
+
+    Mono<Map<String, Long>> getCorpusWordFrequency(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to,
+            int top
+    );
+}
@@ -0,0 +1,324 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.config.NoteListingProperties;
+import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteCursorPageDto;
+import com.matthew.test_project.dto.NoteDetailDto;
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.dto.NoteSearchHitDto;
+import com.matthew.test_project.dto.NoteSliceDto;
+import com.matthew.test_project.dto.NoteTagFacetsDto;
+import com.matthew.test_project.dto.NoteUpdateDto;
+import com.matthew.test_project.dto.NoteVersionDto;
+import com.matthew.test_project.dto.NoteVersionedPageDto;
+import com.matthew.test_project.exception.BadRequestException;
+import com.matthew.test_project.exception.NoteNotFoundException;
+import com.matthew.test_project.exception.NoteVersionConflictException;
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteCursor;
+import com.matthew.test_project.repository.NoteFilter;
+import com.matthew.test_project.repository.NotePatch;
+import com.matthew.test_project.repository.NoteTagFilter;
+import com.matthew.test_project.repository.ReactiveNoteRepository;
+import com.mongodb.lang.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveNoteServiceImpl implements ReactiveNoteService {
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int EXPORT_BATCH_SIZE = 500;
+    private static final int WORD_STATS_BATCH_SIZE = 1000;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    private final ReactiveNoteRepository noteRepository;
+    private final NoteMapper noteMapper;
+    private final NoteIdFilter noteIdFilter;
+    private final NoteSearchIndex noteSearchIndex;
+    private final NoteListingProperties noteListingProperties;
+    private final NoteTagCounters noteTagCounters;
+
+    @Override
+    public Mono<NoteDetailDto> create(NoteCreateDto dto) {
+        return Mono.fromSupplier(() -> noteMapper.toNewNote(dto))
+                .flatMap(noteRepository::insert)
+                .doOnNext(inserted -> noteTagCounters.created(inserted.getTags()))
+                .map(noteMapper::toDetailDto);
+    }
+
+    @Override
+    public Mono<Page<NoteListDto>> findAll(NoteTagFilter tags, Pageable pageable) {
+        return Mono.zip(
+                noteRepository.findList(tags, pageable, pageable.getPageSize()).collectList(),
+                tags.isEmpty() ? noteRepository.count() : noteRepository.countMatching(tags),
+                (content, total) -> new PageImpl<>(content, pageable, total)
+        );
+    }
+
+    @Override
+    public Mono<NoteVersionedPageDto> findAllVersioned(NoteTagFilter tags, Pageable pageable) {
+        return noteRepository.findLastModified(tags)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(lastModified -> findAll(tags, pageable)
+                        .map(page -> new NoteVersionedPageDto(page,
+                                noteMapper.toListVersionDto(page.getTotalElements(), lastModified.orElse(null)))));
+    }
+
+    @Override
+    public Mono<NoteSliceDto> findSlice(NoteTagFilter tags, Pageable pageable, boolean withTotal) {
+        int size = pageable.getPageSize();
+        Mono<List<NoteListDto>> rows = noteRepository.findList(tags, pageable, size + 1).collectList();
+        // Like the blocking slice, the unfiltered total is the collection's estimated count.
+        Mono<Long> total = withTotal ? estimatedCount(tags) : Mono.just(-1L);
+
+        return Mono.zip(rows, total, (content, count) -> {
+            boolean hasNext = content.size() > size;
+            return new NoteSliceDto(
+                    hasNext ? content.subList(0, size) : content,
+                    pageable.getPageNumber(),
+                    size,
+                    hasNext,
+                    count < 0 ? null : count
+            );
+        });
+    }
+
+    @Override
+    public Mono<NoteCursorPageDto> findAllAfter(NoteTagFilter tags, @Nullable String after, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            return Mono.error(new BadRequestException("size must be between 1 and " + MAX_CURSOR_PAGE_SIZE));
+        }
+
+        NoteCursor cursor = null;
+        if (after != null && !after.isEmpty()) {
+            try {
+                cursor = NoteCursor.decode(after);
+            } catch (IllegalArgumentException e) {
+                return Mono.error(new BadRequestException("Invalid cursor: " + after));
+            }
+        }
+
+        Flux<NoteListDto> page = noteListingProperties.orderById()
+                ? noteRepository.findPageAfterId(tags, cursor != null ? cursor.id() : null, size + 1)
+                : noteRepository.findPageAfter(tags, cursor, size + 1);
+        return page
+                .collectList()
+                .map(rows -> {
+                    boolean hasNext = rows.size() > size;
+                    List<NoteListDto> content = hasNext ? rows.subList(0, size) : rows;
+
+                    String nextCursor = null;
+                    if (hasNext) {
+                        NoteListDto last = content.get(content.size() - 1);
+                        nextCursor = new NoteCursor(last.createdDate(), last.id()).encode();
+                    }
+                    return new NoteCursorPageDto(content, nextCursor, hasNext);
+                });
+    }
+
+    @Override
+    public Mono<List<NoteSearchHitDto>> search(@Nullable String query, int size) {
+        if (query == null || query.isBlank()) {
+            return Mono.error(new BadRequestException("q must not be blank"));
+        }
+        if (size < 1 || size > MAX_SEARCH_RESULTS) {
+            return Mono.error(new BadRequestException("size must be between 1 and " + MAX_SEARCH_RESULTS));
+        }
+
+        return Mono.fromSupplier(() -> noteSearchIndex.search(query, size))
+                .flatMap(hits -> hits.isEmpty()
+                        ? Mono.just(List.<NoteSearchHitDto>of())
+                        : noteRepository.findByIdIn(hits.stream().map(InvertedIndex.Hit::note).toList())
+                                .collectMap(NoteListDto::id)
+                                .map(notes -> NoteServiceImpl.toSearchHits(hits, notes)));
+    }
+
+    @Override
+    public Mono<NoteTagFacetsDto> getTagFacets() {
+        return Mono.fromSupplier(noteTagCounters::facets);
+    }
+
+    @Override
+    public Mono<NoteDetailDto> findById(UUID id) {
+        return requireMightExist(id)
+                .then(noteRepository.findById(id))
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .map(noteMapper::toDetailDto);
+    }
+
+    @Override
+    public Mono<NoteVersionDto> getVersion(UUID id) {
+        return requireMightExist(id)
+                .then(noteRepository.findVersionById(id))
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .map(noteMapper::toVersionDto);
+    }
+
+    @Override
+    public Mono<NoteVersionDto> getListVersion(NoteTagFilter tags) {
+        // Like the blocking service, read the time before the count.
+        return noteRepository.findLastModified(tags)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(lastModified -> (tags.isEmpty()
+                        ? noteRepository.count()
+                        : noteRepository.countMatching(tags))
+                        .map(count -> noteMapper.toListVersionDto(count, lastModified.orElse(null))));
+    }
+
+    @Override
+    public Mono<NoteDetailDto> update(UUID id, NoteUpdateDto dto) {
+        return requireMightExist(id)
+                .then(Mono.fromSupplier(() -> new NotePatch(
+                        dto.getTitle(),
+                        dto.getText(),
+                        dto.getText() != null ? WordFrequencyCounter.frequencies(dto.getText()) : null,
+                        dto.getTags(),
+                        LocalDateTime.now()
+                )))
+                .flatMap(patch -> noteRepository.updateFields(id, dto.getVersion(), patch)
+                        .switchIfEmpty(Mono.defer(() -> dto.getVersion() == null
+                                ? Mono.error(notFound(id))
+                                : noteRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                                        ? new NoteVersionConflictException(
+                                                "Note " + id + " is no longer at version " + dto.getVersion())
+                                        : notFound(id)))))
+                        .map(previous -> {
+                            Note updated = patch.applyTo(previous);
+                            if (dto.getTitle() != null || dto.getText() != null) {
+                                noteSearchIndex.put(updated);
+                            }
+                            if (dto.getTags() != null) {
+                                noteTagCounters.updated(previous.getTags(), updated.getTags());
+                            }
+                            return noteMapper.toDetailDto(updated);
+                        }));
+    }
+
+    @Override
+    public Mono<Void> delete(UUID id) {
+        return requireMightExist(id)
+                .then(noteRepository.removeById(id))
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .doOnNext(removed -> {
+                    noteIdFilter.removed(id);
+                    noteSearchIndex.removed(id);
+                    noteTagCounters.deleted(removed.getTags());
+                })
+                .then();
+    }
+
+    @Override
+    public Mono<Map<String, Long>> getWordFrequency(UUID id, @Nullable Integer top) {
+        if (top != null && top < 1) {
+            return Mono.error(new BadRequestException("top must be a positive number"));
+        }
+
+        return requireMightExist(id)
+                .then(noteRepository.findWordStatsById(id))
+                .switchIfEmpty(Mono.error(() -> notFound(id)))
+                .flatMap(note -> {
+                    Map<String, Long> stats = note.getWordStats();
+                    if (stats != null) {
+                        return Mono.just(limit(stats, top));
+                    }
+                    // Written before word stats were stored with the note.
+                    return noteRepository.findById(id)
+                            .map(full -> {
+                                WordFrequencyCounter counter = new WordFrequencyCounter().add(full.getText());
+                                return top != null ? counter.top(top) : counter.toSortedMap();
+                            });
+                });
+    }
+
+    @Override
+    public Flux<NoteDetailDto> exportNotes(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to
+    ) {
+        NoteFilter filter = new NoteFilter(tags, from, to);
+        return validateRange(filter)
+                .thenMany(noteRepository.streamNotes(filter, EXPORT_BATCH_SIZE))
+                .map(noteMapper::toDetailDto);
+    }
+
+    @Override
+    public Mono<Map<String, Long>> getCorpusWordFrequency(
+            NoteTagFilter tags,
+            @Nullable LocalDateTime from,
+            @Nullable LocalDateTime to,
+            int top
+    ) {
+        if (top < 1) {
+            return Mono.error(new BadRequestException("top must be a positive number"));
+        }
+        NoteFilter filter = new NoteFilter(tags, from, to);
+
+        // Counting is CPU-bound, so keep it off the event loop.
+        return validateRange(filter)
+                .thenMany(noteRepository.streamWordSources(filter, WORD_STATS_BATCH_SIZE))
+                .publishOn(Schedulers.parallel())
+                .collect(WordFrequencyCounter::new, (counter, note) -> {
+                    if (note.getWordStats() != null) {
+                        note.getWordStats().forEach(counter::add);
+                    } else {
+                        counter.add(note.getText());
+                    }
+                })
+                .map(counter -> counter.top(top));
+    }
+
+    private Mono<Long> estimatedCount(NoteTagFilter tags) {
+        return tags.isEmpty()
+                ? noteRepository.estimatedCount()
+                : noteRepository.countMatching(tags);
+    }
+
+    private Mono<Void> requireMightExist(UUID id) {
+        return noteIdFilter.mightExist(id) ? Mono.empty() : Mono.error(notFound(id));
+    }
+
+    private static Mono<Void> validateRange(NoteFilter filter) {
+        if (filter.from() != null && filter.to() != null && !filter.from().isBefore(filter.to())) {
+            return Mono.error(new BadRequestException("from must be before to"));
+        }
+        return Mono.empty();
+    }
+
+    private static Map<String, Long> limit(Map<String, Long> stats, @Nullable Integer top) {
+        if (top == null || top >= stats.size()) {
+            return stats;
+        }
+        Map<String, Long> limited = new LinkedHashMap<>();
+        for (Map.Entry<String, Long> entry : stats.entrySet()) {
+            if (limited.size() == top) {
+                break;
+            }
+            limited.put(entry.getKey(), entry.getValue());
+        }
+        return limited;
+    }
+
+    private static NoteNotFoundException notFound(UUID id) {
+        return new NoteNotFoundException("Note not found with id: " + id);
+    }
+}
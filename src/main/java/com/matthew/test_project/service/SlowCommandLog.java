@@ -0,0 +1,190 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.dto.SlowCommandDto;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonReader;
+import org.bson.BsonString;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the last {@code notes.mongo.slow-commands.capacity} MongoDB commands that took at least
+ * {@code notes.mongo.slow-commands.threshold}, so slow queries can be found without driver TRACE logging.
+ * <p>
+ * Entries go into a fixed-size ring that writers claim slots in with a single atomic increment; a full ring
+ * overwrites its oldest entry. Each entry carries the command's shape with every value replaced by
+ * {@code "?"}, and the service method that issued it when the command completed on the calling thread,
+ * which is always the case for the blocking driver. The shape is read from every command as it starts,
+ * skipping all but the first element of each array, so an insert of a thousand notes costs no more than one;
+ * only commands over the threshold are serialized and have the stack walked.
+ */
+@Component
+public class SlowCommandLog implements CommandListener, MongoClientSettingsBuilderCustomizer {
+
+    private static final String REDACTED = "?";
+    private static final int MAX_DEPTH = 8;
+    private static final String SERVICE_PACKAGE = SlowCommandLog.class.getPackageName();
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<SlowCommandDto> entries;
+    private final AtomicLong written = new AtomicLong();
+    // The command document is only readable while commandStarted runs, so its shape is kept until the command
+    // completes.
+    private final Map<Integer, BsonDocument> shapes = new ConcurrentHashMap<>();
+
+    public SlowCommandLog(
+            @Value("${notes.mongo.slow-commands.threshold:100ms}") Duration threshold,
+            @Value("${notes.mongo.slow-commands.capacity:256}") int capacity
+    ) {
+        this.thresholdNanos = threshold.toNanos();
+        this.entries = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public void customize(MongoClientSettings.Builder builder) {
+        builder.addCommandListener(this);
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        shapes.put(event.getRequestId(), shape(event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getDatabaseName(), event.getCommandName(),
+                event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+    }
+
+    /**
+     * Slow commands, newest first.
+     */
+    public List<SlowCommandDto> recent() {
+        long end = written.get();
+        int capacity = entries.length();
+        List<SlowCommandDto> recent = new ArrayList<>(capacity);
+        for (long i = end - 1; i >= Math.max(0, end - capacity); i--) {
+            SlowCommandDto entry = entries.get((int) (i % capacity));
+            if (entry != null) {
+                recent.add(entry);
+            }
+        }
+        return recent;
+    }
+
+    private void completed(int requestId, String database, String commandName, long elapsedNanos, boolean failed) {
+        BsonDocument shape = shapes.remove(requestId);
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        SlowCommandDto entry = new SlowCommandDto(
+                Instant.now().minusNanos(elapsedNanos),
+                database,
+                commandName,
+                shape != null ? shape.toJson() : "{}",
+                elapsedNanos / 1_000_000.0,
+                failed,
+                callingServiceMethod()
+        );
+        entries.set((int) (written.getAndIncrement() % entries.length()), entry);
+    }
+
+    /**
+     * The command with driver bookkeeping such as {@code lsid} and {@code $clusterTime} dropped and every value
+     * except the target collection replaced; arrays keep the shape of their first element and a count. Values
+     * that do not show up in the shape are skipped without being read.
+     */
+    static BsonDocument shape(BsonDocument command) {
+        BsonDocument shape = new BsonDocument();
+        try (BsonReader reader = command.asBsonReader()) {
+            reader.readStartDocument();
+            boolean first = true;
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                String key = reader.readName();
+                if (first) {
+                    // {"find": "notes"}: the collection name is not user data.
+                    shape.put(key, reader.getCurrentBsonType() == BsonType.STRING
+                            ? new BsonString(reader.readString())
+                            : redact(reader, MAX_DEPTH + 1));
+                    first = false;
+                } else if (!key.startsWith("$") && !key.equals("lsid") && !key.equals("txnNumber")) {
+                    shape.put(key, redact(reader, 1));
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.readEndDocument();
+        }
+        return shape;
+    }
+
+    private static BsonValue redact(BsonReader reader, int depth) {
+        BsonType type = reader.getCurrentBsonType();
+        if (depth > MAX_DEPTH || (type != BsonType.DOCUMENT && type != BsonType.ARRAY)) {
+            reader.skipValue();
+            return new BsonString(REDACTED);
+        }
+        if (type == BsonType.DOCUMENT) {
+            BsonDocument redacted = new BsonDocument();
+            reader.readStartDocument();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                redacted.put(reader.readName(), redact(reader, depth + 1));
+            }
+            reader.readEndDocument();
+            return redacted;
+        }
+        BsonArray redacted = new BsonArray();
+        int size = 0;
+        reader.readStartArray();
+        while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+            if (size == 0) {
+                redacted.add(redact(reader, depth + 1));
+            } else {
+                reader.skipValue();
+            }
+            size++;
+        }
+        reader.readEndArray();
+        if (size > 1) {
+            redacted.add(new BsonString("+" + (size - 1) + " more"));
+        }
+        return redacted;
+    }
+
+    private static String callingServiceMethod() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getDeclaringClass().getPackageName().equals(SERVICE_PACKAGE)
+                        && frame.getDeclaringClass() != SlowCommandLog.class
+                        && !frame.getClassName().contains("$$"))
+                // The outermost one is the entry point, e.g. NoteServiceImpl.findById rather than NoteCache.get.
+                .reduce((inner, outer) -> outer)
+                .map(frame -> frame.getDeclaringClass().getSimpleName() + "." + frame.getMethodName())
+                .orElse(null));
+    }
+}
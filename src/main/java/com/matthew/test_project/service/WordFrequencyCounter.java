@@ -0,0 +1,286 @@
+package com.matthew.test_project.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Single-pass word tokenizer and counter behind the word-stats endpoints.
+ * <p>
+ * A word is a maximal run of Latin letters, Cyrillic letters ({@code а-я}, {@code ё}) or digits after
+ * lower-casing; every other character separates words. Counts are kept in primitive arrays behind an
+ * open-addressing table, and a {@code String} is only allocated the first time a word is seen.
+ * <p>
+ * Results are ordered by count descending, ties broken by first occurrence. Instances are not thread-safe.
+ */
+public final class WordFrequencyCounter {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private String[] words = new String[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private int size;
+
+    // Open-addressing table of entry index + 1, 0 marks an empty slot.
+    private int[] table = new int[INITIAL_CAPACITY * 2];
+
+    private char[] buffer = new char[32];
+
+    public static Map<String, Long> frequencies(String text) {
+        return new WordFrequencyCounter().add(text).toSortedMap();
+    }
+
+    public WordFrequencyCounter add(CharSequence text) {
+        if (text == null) {
+            return this;
+        }
+
+        int length = 0;
+        int hash = 0;
+
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+
+            // String.toLowerCase turns 'İ' into "i̇"; the combining dot then acts as a separator.
+            boolean endsWord = c == 'İ';
+            c = endsWord ? 'i' : Character.toLowerCase(c);
+
+            if (isWordChar(c)) {
+                if (length == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, length * 2);
+                }
+                buffer[length++] = c;
+                hash = 31 * hash + c;
+                if (!endsWord) {
+                    continue;
+                }
+            }
+
+            if (length > 0) {
+                increment(buffer, length, hash, 1);
+                length = 0;
+                hash = 0;
+            }
+        }
+
+        if (length > 0) {
+            increment(buffer, length, hash, 1);
+        }
+        return this;
+    }
+
+    public void merge(WordFrequencyCounter other) {
+        for (int i = 0; i < other.size; i++) {
+            String word = other.words[i];
+            increment(word, other.hashes[i], other.counts[i]);
+        }
+    }
+
+    public void add(String word, long count) {
+        increment(word, word.hashCode(), count);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long count(String word) {
+        int index = indexOf(word, word.hashCode());
+        return index < 0 ? 0 : counts[index];
+    }
+
+    /**
+     * Visits every distinct word in first-occurrence order.
+     */
+    public void forEach(ObjLongConsumer<String> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(words[i], counts[i]);
+        }
+    }
+
+    public Map<String, Long> toSortedMap() {
+        return top(size);
+    }
+
+    /**
+     * Returns the {@code k} most frequent words using a bounded min-heap, so only {@code k} entries are
+     * ever ordered.
+     */
+    public Map<String, Long> top(int k) {
+        int limit = Math.min(k, size);
+        if (limit <= 0) {
+            return Collections.emptyMap();
+        }
+
+        int[] heap = new int[limit];
+        int heapSize = 0;
+
+        for (int i = 0; i < size; i++) {
+            if (heapSize < limit) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if (ranksBefore(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, 0, heapSize);
+            }
+        }
+
+        // Drain weakest-first into the tail so the array ends up strongest-first.
+        for (int last = heapSize - 1; last > 0; last--) {
+            int weakest = heap[0];
+            heap[0] = heap[last];
+            heap[last] = weakest;
+            siftDown(heap, 0, last);
+        }
+
+        Map<String, Long> result = new LinkedHashMap<>(limit * 4 / 3 + 1);
+        for (int i = 0; i < limit; i++) {
+            result.put(words[heap[i]], counts[heap[i]]);
+        }
+        return result;
+    }
+
+    static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z')
+                || (c >= '0' && c <= '9')
+                || (c >= 'а' && c <= 'я')
+                || c == 'ё';
+    }
+
+    // Higher count first, then earlier first occurrence.
+    private boolean ranksBefore(int a, int b) {
+        if (counts[a] != counts[b]) {
+            return counts[a] > counts[b];
+        }
+        return a < b;
+    }
+
+    private void siftUp(int[] heap, int index) {
+        int entry = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!ranksBefore(heap[parent], entry)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = entry;
+    }
+
+    private void siftDown(int[] heap, int index, int heapSize) {
+        int entry = heap[index];
+        int half = heapSize >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            int right = child + 1;
+            if (right < heapSize && ranksBefore(heap[child], heap[right])) {
+                child = right;
+            }
+            if (!ranksBefore(entry, heap[child])) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = entry;
+    }
+
+    private void increment(char[] chars, int length, int hash, long delta) {
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                table[slot] = append(new String(chars, 0, length), hash, delta) + 1;
+                growIfNeeded();
+                return;
+            }
+            if (hashes[entry] == hash && equals(words[entry], chars, length)) {
+                counts[entry] += delta;
+                return;
+            }
+        }
+    }
+
+    private void increment(String word, int hash, long delta) {
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                table[slot] = append(word, hash, delta) + 1;
+                growIfNeeded();
+                return;
+            }
+            if (hashes[entry] == hash && words[entry].equals(word)) {
+                counts[entry] += delta;
+                return;
+            }
+        }
+    }
+
+    private int indexOf(String word, int hash) {
+        int mask = table.length - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (hashes[entry] == hash && words[entry].equals(word)) {
+                return entry;
+            }
+        }
+    }
+
+    private int append(String word, int hash, long count) {
+        if (size == words.length) {
+            int capacity = size * 2;
+            words = Arrays.copyOf(words, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            counts = Arrays.copyOf(counts, capacity);
+        }
+        words[size] = word;
+        hashes[size] = hash;
+        counts[size] = count;
+        return size++;
+    }
+
+    // Keeps the table at most half full.
+    private void growIfNeeded() {
+        if (size * 2 <= table.length) {
+            return;
+        }
+        int[] grown = new int[table.length * 2];
+        int mask = grown.length - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = spread(hashes[entry]) & mask;
+            while (grown[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            grown[slot] = entry + 1;
+        }
+        table = grown;
+    }
+
+    private static boolean equals(String word, char[] chars, int length) {
+        if (word.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (word.charAt(i) != chars[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,74 @@
+package com.matthew.test_project;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.service.AdaptiveConcurrencyLimit;
+import com.matthew.test_project.service.NoteConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Load shedding, in a context of its own so the other scenarios run with the limit off, as deployed by default.
+ */
+@SpringBootTest(properties = "notes.concurrency-limit.enabled=true")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase
+class NoteConcurrencyLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteConcurrencyLimiter noteConcurrencyLimiter;
+
+    @Test
+    void concurrencyLimit_shouldShedExpensiveRequestsWith503_andKeepServingCheapOnes() throws Exception {
+        noteRepository.deleteAll();
+        Note note = noteRepository.save(Note.builder()
+                .id(UUID.randomUUID()).title("Cheap").text("cheap read").createdDate(LocalDateTime.now()).build());
+        // Fill the expensive budget as if its requests were stuck on a slow database.
+        AdaptiveConcurrencyLimit expensive = noteConcurrencyLimiter.limitFor("GET", "/api/notes/word-stats", false);
+        int held = 0;
+        while (expensive.tryAcquire()) {
+            held++;
+        }
+        try {
+            mockMvc.perform(get("/api/notes/word-stats"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.error").value("Service Unavailable"));
+            mockMvc.perform(get("/api/notes").param("tags", "BUSINESS"))
+                    .andExpect(status().isServiceUnavailable());
+
+            mockMvc.perform(get("/api/notes/{id}", note.getId()))
+                    .andExpect(status().isOk());
+            mockMvc.perform(get("/api/notes"))
+                    .andExpect(status().isOk());
+        } finally {
+            for (int i = 0; i < held; i++) {
+                expensive.release(0);
+            }
+        }
+
+        mockMvc.perform(get("/api/notes/word-stats"))
+                .andExpect(status().isOk());
+        assertThat(expensive.inFlight()).isZero();
+    }
+}
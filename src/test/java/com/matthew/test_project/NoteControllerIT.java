@@ -1,17 +1,29 @@
 package com.matthew.test_project;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matthew.test_project.dto.NoteBulkCreateResultDto;
 import com.matthew.test_project.dto.NoteCreateDto;
 import com.matthew.test_project.dto.NoteUpdateDto;
 import com.matthew.test_project.model.Note;
 import com.matthew.test_project.model.NoteTag;
 import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.repository.NoteTagMigration;
+import com.matthew.test_project.service.NoteBulkImporter;
+import com.matthew.test_project.service.NoteMapper;
+import com.matthew.test_project.service.NoteMetrics;
+import com.matthew.test_project.service.NoteTagCounters;
+import jakarta.validation.Validator;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
@@ -21,12 +33,17 @@ import java.util.UUID;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @AutoConfigureTestDatabase
+@AutoConfigureObservability
 class NoteControllerIntegrationTest {
 
     @Autowired
@@ -38,6 +55,21 @@ class NoteControllerIntegrationTest {
     @Autowired
     private NoteRepository noteRepository;
 
+    @Autowired
+    private NoteTagMigration noteTagMigration;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NoteMetrics noteMetrics;
+
+    @Autowired
+    private NoteTagCounters noteTagCounters;
+
+    @Autowired
+    private Validator validator;
+
     @Test
     void createNote_shouldReturn200_andPersistInDb() throws Exception {
         NoteCreateDto dto = new NoteCreateDto();
@@ -97,6 +129,44 @@ class NoteControllerIntegrationTest {
                         note.getTags().isEmpty());
     }
 
+    @Test
+    void createNotes_shouldInsertValidItems_andReportInvalidOnes() throws Exception {
+        NoteCreateDto valid = new NoteCreateDto();
+        valid.setTitle("Bulk Note");
+        valid.setText("Bulk text");
+        valid.setTags(Set.of(NoteTag.PERSONAL));
+        NoteCreateDto missingTitle = new NoteCreateDto();
+        missingTitle.setText("No title");
+
+        mockMvc.perform(post("/api/notes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(valid, missingTitle, valid))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.items[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.items[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.items[1].errors.title").exists())
+                .andExpect(jsonPath("$.items[2].status").value("CREATED"));
+
+        String ndjson = objectMapper.writeValueAsString(valid) + "\n"
+                + "{\"title\":\"Bad tag\",\"text\":\"Text\",\"tags\":[\"UNKNOWN\"]}\n"
+                + objectMapper.writeValueAsString(valid) + "\n";
+
+        mockMvc.perform(post("/api/notes/bulk")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.items[1].status").value("INVALID"))
+                .andExpect(jsonPath("$.items[2].status").value("CREATED"));
+
+        assertThat(noteRepository.findAll())
+                .filteredOn(note -> note.getTitle().equals("Bulk Note"))
+                .hasSizeGreaterThanOrEqualTo(4)
+                .allMatch(note -> note.getWordStats() != null);
+    }
+
     @Test
     void getAllNotes_shouldReturnAllNotesSortedDesc() throws Exception {
         Note note1 = Note.builder().title("First").text("Text1").tags(Set.of(NoteTag.BUSINESS)).createdDate(LocalDateTime.now().minusDays(1)).build();
@@ -123,6 +193,71 @@ class NoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.content[0].title").value("Business Note"));
     }
 
+    @Test
+    void getAllNotes_shouldMatchAnyAllOrNoneOfTheTags_storedAsOneMask() throws Exception {
+        noteRepository.deleteAll();
+        Note both = Note.builder().id(UUID.randomUUID()).title("Both").text("Text").tags(Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT)).createdDate(LocalDateTime.now()).build();
+        Note business = Note.builder().id(UUID.randomUUID()).title("Business").text("Text").tags(Set.of(NoteTag.BUSINESS)).createdDate(LocalDateTime.now().minusSeconds(1)).build();
+        Note personal = Note.builder().id(UUID.randomUUID()).title("Personal").text("Text").tags(Set.of(NoteTag.PERSONAL)).createdDate(LocalDateTime.now().minusSeconds(2)).build();
+        Note untagged = Note.builder().id(UUID.randomUUID()).title("Untagged").text("Text").createdDate(LocalDateTime.now().minusSeconds(3)).build();
+        noteRepository.saveAll(List.of(both, business, personal, untagged));
+
+        assertThat(mongoTemplate.getCollection("testproject").find(new Document("_id", both.getId())).first().get("tags"))
+                .isEqualTo(NoteTag.BUSINESS.mask() | NoteTag.IMPORTANT.mask());
+
+        mockMvc.perform(get("/api/notes").param("tags", "BUSINESS", "IMPORTANT"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalElements").value(2));
+        mockMvc.perform(get("/api/notes").param("tags", "BUSINESS", "IMPORTANT").param("tagMatch", "ALL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].title").value("Both"));
+        mockMvc.perform(get("/api/notes/cursor").param("tags", "BUSINESS", "IMPORTANT").param("tagMatch", "NONE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].title").value("Personal"))
+                .andExpect(jsonPath("$.content[1].title").value("Untagged"));
+        mockMvc.perform(get("/api/notes").param("tags", "BUSINESS").param("tagMatch", "SOME"))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/notes/{id}", both.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags.length()").value(2));
+    }
+
+    @Test
+    void tagMigration_shouldConvertTagNameArraysToMasks_droppingUnknownNames() {
+        noteRepository.deleteAll();
+        UUID tagged = UUID.randomUUID();
+        UUID empty = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+        UUID renamed = UUID.randomUUID();
+        UUID onlyRenamed = UUID.randomUUID();
+        // As notes were stored before tag masks, some with tags that no longer exist.
+        mongoTemplate.getCollection("testproject").insertMany(List.of(
+                new Document("_id", tagged).append("title", "Tagged").append("text", "Text")
+                        .append("tags", List.of("BUSINESS", "IMPORTANT")),
+                new Document("_id", empty).append("title", "Empty").append("text", "Text").append("tags", List.of()),
+                new Document("_id", missing).append("title", "Missing").append("text", "Text"),
+                new Document("_id", renamed).append("title", "Renamed").append("text", "Text")
+                        .append("tags", List.of("PERSONAL", "RETIRED")),
+                new Document("_id", onlyRenamed).append("title", "Only renamed").append("text", "Text")
+                        .append("tags", List.of("RETIRED"))
+        ));
+
+        assertThat(noteTagMigration.migrate()).isEqualTo(5);
+        assertThat(noteTagMigration.migrate()).isZero();
+
+        assertThat(noteRepository.findById(tagged).orElseThrow().getTags())
+                .containsExactlyInAnyOrder(NoteTag.BUSINESS, NoteTag.IMPORTANT);
+        assertThat(noteRepository.findById(empty).orElseThrow().getTags()).isEmpty();
+        assertThat(noteRepository.findById(renamed).orElseThrow().getTags()).containsExactly(NoteTag.PERSONAL);
+        assertThat(noteRepository.findById(onlyRenamed).orElseThrow().getTags()).isEmpty();
+        assertThat(mongoTemplate.getCollection("testproject").find(new Document("_id", missing)).first().get("tags"))
+                .isEqualTo(0);
+    }
+
     @Test
     void getAllNotes_shouldReturnEmptyList_whenNoNotes() throws Exception {
         noteRepository.deleteAll();
@@ -146,6 +281,83 @@ class NoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.totalPages").value(3));
     }
 
+    @Test
+    void getNotesSlice_shouldReportHasNextWithoutTotal() throws Exception {
+        noteRepository.deleteAll();
+        for (int i = 1; i <= 5; i++) {
+            noteRepository.save(Note.builder().id(UUID.randomUUID()).title("Note " + i).text("Text").tags(Set.of(NoteTag.BUSINESS)).createdDate(LocalDateTime.now().minusDays(i)).build());
+        }
+
+        mockMvc.perform(get("/api/notes/slice").param("size", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(3))
+                .andExpect(jsonPath("$.content[0].title").value("Note 1"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").isEmpty());
+
+        mockMvc.perform(get("/api/notes/slice")
+                        .param("tags", "BUSINESS")
+                        .param("page", "1")
+                        .param("size", "3")
+                        .param("withTotal", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").value(5));
+    }
+
+    @Test
+    void getNotesAfter_shouldWalkAllNotesNewestFirst() throws Exception {
+        noteRepository.deleteAll();
+        LocalDateTime sameInstant = LocalDateTime.now().withNano(0);
+        for (int i = 1; i <= 7; i++) {
+            // Two notes share each createdDate so the id tie-breaker is exercised.
+            noteRepository.save(Note.builder().id(UUID.randomUUID()).title("Note " + i).text("Text").tags(Set.of(NoteTag.BUSINESS)).createdDate(sameInstant.minusDays(i / 2)).build());
+        }
+
+        List<String> titles = new java.util.ArrayList<>();
+        String after = null;
+        do {
+            var request = get("/api/notes/cursor").param("size", "3");
+            if (after != null) {
+                request.param("after", after);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            var page = objectMapper.readTree(body);
+            page.get("content").forEach(note -> titles.add(note.get("title").asText()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (after != null);
+
+        assertThat(titles).hasSize(7).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void getNotesAfter_shouldReturn400_forMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/notes/cursor").param("after", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportNotes_shouldStreamMatchingNotesAsNdjson() throws Exception {
+        noteRepository.deleteAll();
+        noteRepository.saveAll(List.of(
+                Note.builder().id(UUID.randomUUID()).title("Export A").text("Text A").tags(Set.of(NoteTag.BUSINESS)).createdDate(LocalDateTime.now()).build(),
+                Note.builder().id(UUID.randomUUID()).title("Export B").text("Text B").tags(Set.of(NoteTag.BUSINESS)).createdDate(LocalDateTime.now()).build(),
+                Note.builder().id(UUID.randomUUID()).title("Export C").text("Text C").tags(Set.of(NoteTag.PERSONAL)).createdDate(LocalDateTime.now()).build()
+        ));
+
+        String body = mockMvc.perform(get("/api/notes/export").param("tags", "BUSINESS"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines).allMatch(line -> line.contains("\"title\":\"Export ") && !line.contains("Export C"));
+        assertThat(objectMapper.readTree(lines.get(0)).get("text").asText()).startsWith("Text");
+    }
+
     @Test
     void getNoteById_shouldReturnNote() throws Exception {
         noteRepository.deleteAll();
@@ -177,6 +389,109 @@ class NoteControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void getNoteById_shouldServeRepeatedReadsFromCache_andSeeUpdates() throws Exception {
+        Note note = Note.builder()
+                .id(UUID.randomUUID())
+                .title("Cached Note")
+                .text("Some content")
+                .tags(Set.of(NoteTag.BUSINESS))
+                .createdDate(LocalDateTime.now())
+                .build();
+        noteRepository.save(note);
+
+        mockMvc.perform(get("/api/notes/{id}", note.getId())).andExpect(status().isOk());
+        long hitsBefore = objectMapper.readTree(mockMvc.perform(get("/api/admin/note-cache"))
+                .andReturn().getResponse().getContentAsString()).get("hitCount").asLong();
+
+        mockMvc.perform(get("/api/notes/{id}", note.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/admin/note-cache"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitCount").value(hitsBefore + 1));
+
+        NoteUpdateDto updateDto = new NoteUpdateDto();
+        updateDto.setTitle("Cached Note Updated");
+        mockMvc.perform(put("/api/notes/{id}", note.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/notes/{id}", note.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Cached Note Updated"));
+    }
+
+    @Test
+    void getNoteById_shouldAnswerMatchingValidatorsWith304_untilUpdated() throws Exception {
+        Note note = Note.builder()
+                .id(UUID.randomUUID())
+                .title("Polled Note")
+                .text("Some content")
+                .createdDate(LocalDateTime.now())
+                .build();
+        noteRepository.save(note);
+
+        MockHttpServletResponse first = mockMvc.perform(get("/api/notes/{id}", note.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse();
+
+        mockMvc.perform(get("/api/notes/{id}", note.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/notes/{id}", note.getId())
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, first.getHeader(HttpHeaders.LAST_MODIFIED)))
+                .andExpect(status().isNotModified());
+
+        NoteUpdateDto updateDto = new NoteUpdateDto();
+        updateDto.setTitle("Polled Note Updated");
+        mockMvc.perform(put("/api/notes/{id}", note.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updateDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastModified").exists());
+
+        mockMvc.perform(get("/api/notes/{id}", note.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.title").value("Polled Note Updated"));
+    }
+
+    @Test
+    void getAllNotes_shouldAnswerMatchingEtagWith304_untilNotesChange() throws Exception {
+        noteRepository.deleteAll();
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setTitle("Listed Note");
+        dto.setText("Some content");
+        dto.setTags(Set.of(NoteTag.BUSINESS));
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        String etag = mockMvc.perform(get("/api/notes").param("tags", "BUSINESS"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"1-");
+
+        mockMvc.perform(get("/api/notes").param("tags", "BUSINESS").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/notes").param("tags", "BUSINESS").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, startsWith("\"2-")))
+                .andExpect(jsonPath("$.content.length()").value(2));
+    }
+
     @Test
     void updateNote_shouldModifyExistingNote() throws Exception {
         Note note = Note.builder()
@@ -207,6 +522,42 @@ class NoteControllerIntegrationTest {
         assertThat(updatedNote.getTags()).containsExactly(NoteTag.PERSONAL);
     }
 
+    @Test
+    void updateNote_shouldRejectStaleVersion() throws Exception {
+        NoteCreateDto createDto = new NoteCreateDto();
+        createDto.setTitle("Versioned");
+        createDto.setText("Versioned text");
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(0));
+        UUID id = noteRepository.findAll().stream()
+                .filter(note -> note.getTitle().equals("Versioned"))
+                .findFirst().orElseThrow().getId();
+
+        NoteUpdateDto first = new NoteUpdateDto();
+        first.setTitle("Versioned v1");
+        first.setVersion(0L);
+        mockMvc.perform(put("/api/notes/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(first)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Versioned v1"))
+                .andExpect(jsonPath("$.text").value("Versioned text"))
+                .andExpect(jsonPath("$.version").value(1));
+
+        NoteUpdateDto stale = new NoteUpdateDto();
+        stale.setTitle("Lost update");
+        stale.setVersion(0L);
+        mockMvc.perform(put("/api/notes/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stale)))
+                .andExpect(status().isConflict());
+
+        assertThat(noteRepository.findById(id).orElseThrow().getTitle()).isEqualTo("Versioned v1");
+    }
+
     @Test
     void updateNote_shouldReturnNotFoundForNonExistingNote() throws Exception {
         UUID nonExistingId = UUID.randomUUID();
@@ -245,6 +596,82 @@ class NoteControllerIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void deleteNote_twice_shouldReturnNotFound_andHideNote() throws Exception {
+        Note note = Note.builder()
+                .id(UUID.randomUUID())
+                .title("Deleted Twice")
+                .text("Text")
+                .tags(Set.of(NoteTag.BUSINESS))
+                .createdDate(LocalDateTime.now())
+                .build();
+        noteRepository.save(note);
+
+        mockMvc.perform(delete("/api/notes/{id}", note.getId()))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/notes/{id}", note.getId()))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/notes/{id}", note.getId()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getNoteById_shouldFindNotesCreatedInBulk() throws Exception {
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setTitle("Bulk Lookup");
+        dto.setText("Bulk text");
+
+        String response = mockMvc.perform(post("/api/notes/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(dto))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String id = objectMapper.readTree(response).path("items").path(0).path("id").asText();
+
+        mockMvc.perform(get("/api/notes/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Bulk Lookup"));
+    }
+
+    @Test
+    void getNoteById_shouldFindNotesCreatedInABulkChunkWithAFailedItem() throws Exception {
+        Note existing = noteRepository.save(Note.builder()
+                .id(UUID.randomUUID()).title("Existing").text("Existing text").createdDate(LocalDateTime.now()).build());
+        // Hand the first item the id of a stored note, so its chunk fails on a duplicate key.
+        NoteMapper duplicatingMapper = new NoteMapper() {
+            private boolean first = true;
+
+            @Override
+            public Note toNewNote(NoteCreateDto dto) {
+                Note note = super.toNewNote(dto);
+                if (first) {
+                    first = false;
+                    note.setId(existing.getId());
+                }
+                return note;
+            }
+        };
+        NoteBulkImporter importer = new NoteBulkImporter(
+                noteRepository, duplicatingMapper, noteMetrics, noteTagCounters, validator, 10);
+        NoteCreateDto duplicate = new NoteCreateDto();
+        duplicate.setTitle("Duplicate");
+        duplicate.setText("Duplicate text");
+        NoteCreateDto survivor = new NoteCreateDto();
+        survivor.setTitle("Survivor");
+        survivor.setText("Quince survivor text");
+
+        NoteBulkCreateResultDto result = importer.importAll(List.of(duplicate, survivor).iterator());
+        assertThat(result.created()).isEqualTo(1);
+        UUID created = result.items().get(1).id();
+
+        mockMvc.perform(get("/api/notes/{id}", created))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Survivor"));
+        mockMvc.perform(get("/api/notes/search").param("q", "quince"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(created.toString()));
+    }
+
     @Test
     void getWordStats_shouldReturnCorrectFrequency() throws Exception {
         Note note = Note.builder()
@@ -264,6 +691,71 @@ class NoteControllerIntegrationTest {
                 .andExpect(jsonPath("$.a").value(1));
     }
 
+    @Test
+    void getWordStats_shouldReturnTopWords_whenTopIsGiven() throws Exception {
+        Note note = Note.builder()
+                .id(UUID.randomUUID())
+                .title("Top Words Note")
+                .text("b a c a b a d")
+                .tags(Set.of(NoteTag.BUSINESS))
+                .createdDate(LocalDateTime.now())
+                .build();
+        noteRepository.save(note);
+
+        mockMvc.perform(get("/api/notes/{id}/word-stats", note.getId())
+                        .param("top", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.a").value(3))
+                .andExpect(jsonPath("$.b").value(2));
+    }
+
+    @Test
+    void getWordStats_shouldReturn400_whenTopIsNotPositive() throws Exception {
+        mockMvc.perform(get("/api/notes/{id}/word-stats", UUID.randomUUID())
+                        .param("top", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getWordStats_shouldUseStatsStoredOnCreateAndUpdate() throws Exception {
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setTitle("Stored Stats");
+        dto.setText("one two two");
+
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        Note created = noteRepository.findAll().stream()
+                .filter(note -> note.getTitle().equals("Stored Stats"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(created.getWordStats()).containsEntry("two", 2L).containsEntry("one", 1L);
+
+        NoteUpdateDto titleOnly = new NoteUpdateDto();
+        titleOnly.setTitle("Stored Stats Renamed");
+        mockMvc.perform(put("/api/notes/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(titleOnly)))
+                .andExpect(status().isOk());
+        assertThat(noteRepository.findById(created.getId()).orElseThrow().getWordStats())
+                .containsEntry("two", 2L);
+
+        NoteUpdateDto newText = new NoteUpdateDto();
+        newText.setText("three three three");
+        mockMvc.perform(put("/api/notes/{id}", created.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(newText)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/notes/{id}/word-stats", created.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$.three").value(3));
+    }
+
     @Test
     void getWordStats_shouldReturnEmptyForEmptyText() throws Exception {
         Note note = Note.builder()
@@ -280,6 +772,29 @@ class NoteControllerIntegrationTest {
                 .andExpect(jsonPath("$").isEmpty());
     }
 
+    @Test
+    void getCorpusWordStats_shouldAggregateAcrossFilteredNotes() throws Exception {
+        noteRepository.deleteAll();
+        noteRepository.saveAll(List.of(
+                Note.builder().id(UUID.randomUUID()).title("A").text("alpha beta").tags(Set.of(NoteTag.BUSINESS)).createdDate(LocalDateTime.now().minusDays(2)).build(),
+                Note.builder().id(UUID.randomUUID()).title("B").text("alpha gamma").tags(Set.of(NoteTag.BUSINESS)).createdDate(LocalDateTime.now()).build(),
+                Note.builder().id(UUID.randomUUID()).title("C").text("alpha delta").tags(Set.of(NoteTag.PERSONAL)).createdDate(LocalDateTime.now()).build()
+        ));
+
+        mockMvc.perform(get("/api/notes/word-stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.alpha").value(3));
+
+        mockMvc.perform(get("/api/notes/word-stats")
+                        .param("tags", "BUSINESS")
+                        .param("from", LocalDateTime.now().minusDays(1).toString())
+                        .param("top", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$.alpha").value(1))
+                .andExpect(jsonPath("$.gamma").value(1));
+    }
+
     @Test
     void getWordStats_shouldReturnNotFoundForNonExistingNote() throws Exception {
         UUID nonExistingId = UUID.randomUUID();
@@ -287,4 +802,148 @@ class NoteControllerIntegrationTest {
         mockMvc.perform(get("/api/notes/{id}/word-stats", nonExistingId))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void prometheus_shouldExposeServiceMongoAndWordStatsMetrics() throws Exception {
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setTitle("Metrics Note");
+        dto.setText("measured words");
+
+        mockMvc.perform(post("/api/notes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("notes_service_seconds_bucket{")))
+                .andExpect(content().string(containsString("method=\"create\"")))
+                .andExpect(content().string(containsString("mongodb_driver_commands_seconds_count{")))
+                .andExpect(content().string(containsString("mongodb_driver_pool_size{")))
+                .andExpect(content().string(containsString("notes_word_stats_input_characters_count{")))
+                .andExpect(content().string(containsString("http_server_requests_seconds_bucket{")));
+    }
+
+    @Test
+    void slowCommands_shouldBeListedByAdminEndpoint() throws Exception {
+        mockMvc.perform(get("/api/admin/slow-commands"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+    }
+
+    @Test
+    void searchNotes_shouldRankMatches_andFollowUpdatesAndDeletes() throws Exception {
+        noteRepository.deleteAll();
+        for (String[] note : new String[][]{
+                {"Kumquat harvest", "kumquat kumquat orchard"},
+                {"Garden", "an orchard with one kumquat tree and many apple trees"}
+        }) {
+            NoteCreateDto dto = new NoteCreateDto();
+            dto.setTitle(note[0]);
+            dto.setText(note[1]);
+            mockMvc.perform(post("/api/notes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        }
+        UUID harvestId = noteRepository.findAll().stream()
+                .filter(note -> note.getTitle().equals("Kumquat harvest")).findFirst().orElseThrow().getId();
+        UUID gardenId = noteRepository.findAll().stream()
+                .filter(note -> note.getTitle().equals("Garden") && note.getText().contains("kumquat"))
+                .findFirst().orElseThrow().getId();
+
+        mockMvc.perform(get("/api/notes/search").param("q", "Kumquat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(harvestId.toString()))
+                .andExpect(jsonPath("$[1].id").value(gardenId.toString()));
+
+        NoteUpdateDto update = new NoteUpdateDto();
+        update.setText("persimmon orchard");
+        mockMvc.perform(put("/api/notes/{id}", harvestId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/notes/search").param("q", "persimmon"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(harvestId.toString()));
+
+        mockMvc.perform(delete("/api/notes/{id}", gardenId))
+                .andExpect(status().isNoContent());
+
+        // The updated note still has kumquat in its title; the deleted one is gone.
+        mockMvc.perform(get("/api/notes/search").param("q", "kumquat"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(harvestId.toString()));
+    }
+
+    @Test
+    void searchNotes_withoutQuery_shouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/notes/search").param("q", "  "))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/notes/search").param("q", "kumquat").param("size", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getTagFacets_shouldFollowCreatesTagChangesAndDeletes() throws Exception {
+        noteRepository.deleteAll();
+        // deleteAll bypasses the counters, so start from counts recomputed from the (empty) collection.
+        mockMvc.perform(post("/api/admin/note-facets/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(0));
+
+        NoteCreateDto tagged = new NoteCreateDto();
+        tagged.setTitle("Tagged");
+        tagged.setText("Text");
+        tagged.setTags(Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT));
+        NoteCreateDto untagged = new NoteCreateDto();
+        untagged.setTitle("Untagged");
+        untagged.setText("Text");
+        for (NoteCreateDto dto : List.of(tagged, untagged)) {
+            mockMvc.perform(post("/api/notes")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(dto)))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/notes/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags.BUSINESS").value(1))
+                .andExpect(jsonPath("$.tags.IMPORTANT").value(1))
+                .andExpect(jsonPath("$.tags.PERSONAL").value(0))
+                .andExpect(jsonPath("$.untagged").value(1))
+                .andExpect(jsonPath("$.total").value(2));
+
+        UUID taggedId = noteRepository.findAll().stream()
+                .filter(note -> note.getTitle().equals("Tagged")).findFirst().orElseThrow().getId();
+        UUID untaggedId = noteRepository.findAll().stream()
+                .filter(note -> note.getTitle().equals("Untagged")).findFirst().orElseThrow().getId();
+        NoteUpdateDto update = new NoteUpdateDto();
+        update.setTags(Set.of(NoteTag.PERSONAL));
+        mockMvc.perform(put("/api/notes/{id}", taggedId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/notes/{id}", untaggedId))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/notes/facets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags.BUSINESS").value(0))
+                .andExpect(jsonPath("$.tags.IMPORTANT").value(0))
+                .andExpect(jsonPath("$.tags.PERSONAL").value(1))
+                .andExpect(jsonPath("$.untagged").value(0))
+                .andExpect(jsonPath("$.total").value(1));
+
+        // Recomputing from the notes agrees with the counters.
+        mockMvc.perform(post("/api/admin/note-facets/reconcile"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tags.PERSONAL").value(1))
+                .andExpect(jsonPath("$.untagged").value(0))
+                .andExpect(jsonPath("$.total").value(1));
+    }
+}
@@ -0,0 +1,68 @@
+package com.matthew.test_project;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.service.AdaptiveConcurrencyLimit;
+import com.matthew.test_project.service.NoteConcurrencyLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * The {@link NoteConcurrencyLimitIntegrationTest} scenario against the WebFlux API.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "notes.concurrency-limit.enabled=true"
+)
+@ActiveProfiles("reactive")
+class ReactiveNoteConcurrencyLimitIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteConcurrencyLimiter noteConcurrencyLimiter;
+
+    @Test
+    void concurrencyLimit_shouldShedExpensiveRequestsWith503_andKeepServingCheapOnes() {
+        noteRepository.deleteAll();
+        Note note = noteRepository.save(Note.builder()
+                .id(UUID.randomUUID()).title("Cheap").text("cheap read").createdDate(LocalDateTime.now()).build());
+        AdaptiveConcurrencyLimit expensive = noteConcurrencyLimiter.limitFor("GET", "/api/notes/word-stats", false);
+        int held = 0;
+        while (expensive.tryAcquire()) {
+            held++;
+        }
+        try {
+            webTestClient.get().uri("/api/notes/word-stats")
+                    .exchange()
+                    .expectStatus().isEqualTo(503)
+                    .expectHeader().valueEquals(HttpHeaders.RETRY_AFTER, "1")
+                    .expectBody()
+                    .jsonPath("$.error").isEqualTo("Service Unavailable")
+                    .jsonPath("$.path").isEqualTo("uri=/api/notes/word-stats");
+
+            webTestClient.get().uri("/api/notes/{id}", note.getId())
+                    .exchange()
+                    .expectStatus().isOk();
+        } finally {
+            for (int i = 0; i < held; i++) {
+                expensive.release(0);
+            }
+        }
+
+        webTestClient.get().uri("/api/notes/word-stats")
+                .exchange()
+                .expectStatus().isOk();
+    }
+}
@@ -0,0 +1,549 @@
+package com.matthew.test_project;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matthew.test_project.dto.NoteCreateDto;
+import com.matthew.test_project.dto.NoteUpdateDto;
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+/**
+ * The {@link NoteControllerIntegrationTest} scenarios against the WebFlux API.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("reactive")
+class ReactiveNoteControllerIntegrationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Test
+    void createNote_shouldReturn200_andPersistInDb() {
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setTitle("Reactive Note");
+        dto.setText("Test content");
+        dto.setTags(Set.of(NoteTag.BUSINESS));
+
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Reactive Note")
+                .jsonPath("$.text").isEqualTo("Test content")
+                .jsonPath("$.tags[0]").isEqualTo("BUSINESS")
+                .jsonPath("$.version").isEqualTo(0);
+
+        assertThat(noteRepository.findAll())
+                .anyMatch(note -> note.getTitle().equals("Reactive Note") && note.getWordStats() != null);
+    }
+
+    @Test
+    void createNote_withoutTitle_shouldReturn400() {
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setText("Test text");
+
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Validation Failed")
+                .jsonPath("$.errors.title").exists();
+    }
+
+    @Test
+    void createNote_withoutText_shouldReturn400() {
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setTitle("Title");
+
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void createNote_withUnknownTag_shouldReturn400() {
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"title\":\"Bad tag\",\"text\":\"Text\",\"tags\":[\"UNKNOWN\"]}")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(String.class).isEqualTo("Invalid tag value: UNKNOWN");
+    }
+
+    @Test
+    void getAllNotes_shouldReturnNotesSortedDesc_andRespectPagination() {
+        noteRepository.deleteAll();
+        for (int i = 1; i <= 25; i++) {
+            noteRepository.save(note("Note " + i, Set.of(NoteTag.BUSINESS), LocalDateTime.now().minusDays(i)));
+        }
+
+        webTestClient.get().uri("/api/notes?page=0&size=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(10)
+                .jsonPath("$.content[0].title").isEqualTo("Note 1")
+                .jsonPath("$.content[1].title").isEqualTo("Note 2")
+                .jsonPath("$.totalElements").isEqualTo(25)
+                .jsonPath("$.totalPages").isEqualTo(3);
+    }
+
+    @Test
+    void getAllNotes_shouldFilterByTags() {
+        noteRepository.deleteAll();
+        noteRepository.saveAll(List.of(
+                note("Business Note", Set.of(NoteTag.BUSINESS), LocalDateTime.now()),
+                note("Personal Note", Set.of(NoteTag.PERSONAL), LocalDateTime.now())
+        ));
+
+        webTestClient.get().uri("/api/notes?tags=BUSINESS")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].title").isEqualTo("Business Note");
+    }
+
+    @Test
+    void getAllNotes_shouldMatchAllOrNoneOfTheTags() {
+        noteRepository.deleteAll();
+        noteRepository.saveAll(List.of(
+                note("Both", Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT), LocalDateTime.now()),
+                note("Business", Set.of(NoteTag.BUSINESS), LocalDateTime.now().minusSeconds(1)),
+                note("Untagged", Set.of(), LocalDateTime.now().minusSeconds(2))
+        ));
+
+        webTestClient.get().uri("/api/notes?tags=BUSINESS,IMPORTANT&tagMatch=ALL")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.content[0].title").isEqualTo("Both");
+        webTestClient.get().uri("/api/notes/slice?tags=BUSINESS&tagMatch=NONE&withTotal=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].title").isEqualTo("Untagged")
+                .jsonPath("$.totalElements").isEqualTo(1);
+    }
+
+    @Test
+    void getAllNotes_shouldReturn400_forUnknownTag() {
+        webTestClient.get().uri("/api/notes?tags=UNKNOWN")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getNotesSlice_shouldReportHasNextWithoutTotal() {
+        noteRepository.deleteAll();
+        for (int i = 1; i <= 5; i++) {
+            noteRepository.save(note("Note " + i, Set.of(NoteTag.BUSINESS), LocalDateTime.now().minusDays(i)));
+        }
+
+        webTestClient.get().uri("/api/notes/slice?size=3")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(3)
+                .jsonPath("$.content[0].title").isEqualTo("Note 1")
+                .jsonPath("$.hasNext").isEqualTo(true)
+                .jsonPath("$.totalElements").isEmpty();
+
+        webTestClient.get().uri("/api/notes/slice?tags=BUSINESS&page=1&size=3&withTotal=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.hasNext").isEqualTo(false)
+                .jsonPath("$.totalElements").isEqualTo(5);
+    }
+
+    @Test
+    void getNotesAfter_shouldWalkAllNotesNewestFirst() throws Exception {
+        noteRepository.deleteAll();
+        LocalDateTime sameInstant = LocalDateTime.now().withNano(0);
+        for (int i = 1; i <= 7; i++) {
+            noteRepository.save(note("Note " + i, Set.of(NoteTag.BUSINESS), sameInstant.minusDays(i / 2)));
+        }
+
+        List<String> titles = new ArrayList<>();
+        String after = null;
+        do {
+            String uri = "/api/notes/cursor?size=3" + (after != null ? "&after=" + after : "");
+            JsonNode page = readTree(webTestClient.get().uri(uri)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(String.class).returnResult().getResponseBody());
+            page.get("content").forEach(note -> titles.add(note.get("title").asText()));
+            after = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (after != null);
+
+        assertThat(titles).hasSize(7).doesNotHaveDuplicates();
+
+        webTestClient.get().uri("/api/notes/cursor?after=not-a-cursor")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void exportNotes_shouldStreamMatchingNotesAsNdjson() throws Exception {
+        noteRepository.deleteAll();
+        noteRepository.saveAll(List.of(
+                note("Export A", Set.of(NoteTag.BUSINESS), LocalDateTime.now()),
+                note("Export B", Set.of(NoteTag.BUSINESS), LocalDateTime.now()),
+                note("Export C", Set.of(NoteTag.PERSONAL), LocalDateTime.now())
+        ));
+
+        String body = webTestClient.get().uri("/api/notes/export?tags=BUSINESS")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        List<String> lines = body.lines().toList();
+        assertThat(lines).hasSize(2);
+        assertThat(lines).allMatch(line -> line.contains("\"title\":\"Export ") && !line.contains("Export C"));
+        assertThat(readTree(lines.get(0)).get("text").asText()).isEqualTo("Text");
+
+        webTestClient.get().uri("/api/notes/export?from=2024-02-01T00:00:00&to=2024-01-01T00:00:00")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void getNoteById_shouldReturnNote_or404() {
+        Note note = noteRepository.save(note("Test Note", Set.of(NoteTag.BUSINESS), LocalDateTime.now()));
+
+        webTestClient.get().uri("/api/notes/{id}", note.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Test Note")
+                .jsonPath("$.tags[0]").isEqualTo("BUSINESS");
+
+        webTestClient.get().uri("/api/notes/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.error").isEqualTo("Not Found")
+                .jsonPath("$.path").value(path -> assertThat((String) path).startsWith("uri=/api/notes/"));
+    }
+
+    @Test
+    void getNoteById_andGetAllNotes_shouldAnswerMatchingEtagWith304() {
+        noteRepository.deleteAll();
+        Note note = noteRepository.save(note("Polled Note", Set.of(NoteTag.BUSINESS), LocalDateTime.now()));
+
+        webTestClient.get().uri("/api/notes/{id}", note.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"0\"");
+        webTestClient.get().uri("/api/notes/{id}", note.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+
+        String etag = webTestClient.get().uri("/api/notes?tags=BUSINESS")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        webTestClient.get().uri("/api/notes?tags=BUSINESS")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        NoteUpdateDto updateDto = new NoteUpdateDto();
+        updateDto.setTitle("Polled Note Updated");
+        webTestClient.put().uri("/api/notes/{id}", note.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updateDto)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/notes/{id}", note.getId())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0\"")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Polled Note Updated");
+        webTestClient.get().uri("/api/notes?tags=BUSINESS")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isOk();
+    }
+
+    @Test
+    void updateNote_shouldModifyExistingNote() {
+        Note note = noteRepository.save(note("Original Title", Set.of(NoteTag.BUSINESS), LocalDateTime.now()));
+
+        NoteUpdateDto updateDto = new NoteUpdateDto();
+        updateDto.setTitle("Updated Title");
+        updateDto.setText("Updated Text");
+        updateDto.setTags(Set.of(NoteTag.PERSONAL));
+
+        webTestClient.put().uri("/api/notes/{id}", note.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updateDto)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Updated Title")
+                .jsonPath("$.text").isEqualTo("Updated Text")
+                .jsonPath("$.tags[0]").isEqualTo("PERSONAL");
+
+        Note updatedNote = noteRepository.findById(note.getId()).orElseThrow();
+        assertThat(updatedNote.getTitle()).isEqualTo("Updated Title");
+        assertThat(updatedNote.getTags()).containsExactly(NoteTag.PERSONAL);
+    }
+
+    @Test
+    void updateNote_shouldRejectStaleVersion_andReturn404ForMissingNote() {
+        Note note = note("Versioned", Set.of(NoteTag.BUSINESS), LocalDateTime.now());
+        note.setVersion(0L);
+        noteRepository.save(note);
+
+        NoteUpdateDto first = new NoteUpdateDto();
+        first.setTitle("Versioned v1");
+        first.setVersion(0L);
+        webTestClient.put().uri("/api/notes/{id}", note.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(first)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(1);
+
+        NoteUpdateDto stale = new NoteUpdateDto();
+        stale.setTitle("Lost update");
+        stale.setVersion(0L);
+        webTestClient.put().uri("/api/notes/{id}", note.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(stale)
+                .exchange()
+                .expectStatus().isEqualTo(409);
+
+        webTestClient.put().uri("/api/notes/{id}", UUID.randomUUID())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(stale)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertThat(noteRepository.findById(note.getId()).orElseThrow().getTitle()).isEqualTo("Versioned v1");
+    }
+
+    @Test
+    void deleteNote_shouldRemoveNote_andReturn404AfterwardsOrForMissingNote() {
+        Note note = noteRepository.save(note("Note to Delete", Set.of(NoteTag.BUSINESS), LocalDateTime.now()));
+
+        webTestClient.delete().uri("/api/notes/{id}", note.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+        webTestClient.delete().uri("/api/notes/{id}", note.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.delete().uri("/api/notes/{id}", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+
+        assertThat(noteRepository.existsById(note.getId())).isFalse();
+    }
+
+    @Test
+    void getTagFacets_shouldFollowTagChangesAndDeletes() {
+        noteRepository.deleteAll();
+        webTestClient.post().uri("/api/admin/note-facets/reconcile")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.total").isEqualTo(0);
+        Note note = noteRepository.save(note("Faceted", Set.of(NoteTag.BUSINESS), LocalDateTime.now()));
+        // Saved past the service, so only a recount picks it up.
+        webTestClient.post().uri("/api/admin/note-facets/reconcile")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tags.BUSINESS").isEqualTo(1);
+
+        NoteUpdateDto updateDto = new NoteUpdateDto();
+        updateDto.setTags(Set.of(NoteTag.PERSONAL, NoteTag.IMPORTANT));
+        webTestClient.put().uri("/api/notes/{id}", note.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(updateDto)
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get().uri("/api/notes/facets")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tags.BUSINESS").isEqualTo(0)
+                .jsonPath("$.tags.PERSONAL").isEqualTo(1)
+                .jsonPath("$.tags.IMPORTANT").isEqualTo(1)
+                .jsonPath("$.total").isEqualTo(1);
+
+        webTestClient.delete().uri("/api/notes/{id}", note.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/notes/facets")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.tags.PERSONAL").isEqualTo(0)
+                .jsonPath("$.tags.IMPORTANT").isEqualTo(0)
+                .jsonPath("$.untagged").isEqualTo(0)
+                .jsonPath("$.total").isEqualTo(0);
+    }
+
+    @Test
+    void getWordStats_shouldReturnFrequencies_andTopWords() {
+        NoteCreateDto dto = new NoteCreateDto();
+        dto.setTitle("Word Stats");
+        dto.setText("note is just a note note is");
+        webTestClient.post().uri("/api/notes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(dto)
+                .exchange()
+                .expectStatus().isOk();
+        UUID noteId = noteRepository.findAll().stream()
+                .filter(note -> note.getTitle().equals("Word Stats"))
+                .findFirst().orElseThrow().getId();
+
+        webTestClient.get().uri("/api/notes/{id}/word-stats", noteId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.note").isEqualTo(3)
+                .jsonPath("$.is").isEqualTo(2)
+                .jsonPath("$.just").isEqualTo(1);
+
+        webTestClient.get().uri("/api/notes/{id}/word-stats?top=1", noteId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$.note").isEqualTo(3);
+
+        webTestClient.get().uri("/api/notes/{id}/word-stats?top=0", noteId)
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        webTestClient.get().uri("/api/notes/{id}/word-stats", UUID.randomUUID())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getWordStats_shouldTokenizeNotesStoredWithoutStats() {
+        Note note = note("Legacy", Set.of(), LocalDateTime.now());
+        note.setText("Hello, hello world");
+        noteRepository.save(note);
+
+        webTestClient.get().uri("/api/notes/{id}/word-stats", note.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.hello").isEqualTo(2)
+                .jsonPath("$.world").isEqualTo(1);
+    }
+
+    @Test
+    void getCorpusWordStats_shouldAggregateAcrossFilteredNotes() {
+        noteRepository.deleteAll();
+        Note a = note("A", Set.of(NoteTag.BUSINESS), LocalDateTime.now().minusDays(2));
+        a.setText("alpha beta");
+        Note b = note("B", Set.of(NoteTag.BUSINESS), LocalDateTime.now());
+        b.setText("alpha gamma");
+        Note c = note("C", Set.of(NoteTag.PERSONAL), LocalDateTime.now());
+        c.setText("alpha delta");
+        noteRepository.saveAll(List.of(a, b, c));
+
+        webTestClient.get().uri("/api/notes/word-stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.alpha").isEqualTo(3);
+
+        webTestClient.get().uri(builder -> builder.path("/api/notes/word-stats")
+                        .queryParam("tags", "BUSINESS")
+                        .queryParam("from", LocalDateTime.now().minusDays(1).toString())
+                        .queryParam("top", 5)
+                        .build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$.alpha").isEqualTo(1)
+                .jsonPath("$.gamma").isEqualTo(1);
+    }
+
+    @Test
+    void searchNotes_shouldRankMatches_andRejectBlankQuery() {
+        noteRepository.deleteAll();
+        Note best = note("Quince jam", Set.of(NoteTag.PERSONAL), LocalDateTime.now());
+        best.setText("quince quince recipe");
+        Note other = note("Pantry", Set.of(NoteTag.PERSONAL), LocalDateTime.now());
+        other.setText("jars of quince jam, apricot jam and honey in the pantry");
+        noteRepository.saveAll(List.of(best, other));
+
+        webTestClient.get().uri(builder -> builder.path("/api/notes/search").queryParam("q", "quince").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].id").isEqualTo(best.getId().toString())
+                .jsonPath("$[1].id").isEqualTo(other.getId().toString());
+
+        webTestClient.get().uri("/api/notes/search")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private static Note note(String title, Set<NoteTag> tags, LocalDateTime createdDate) {
+        return Note.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .text("Text")
+                .tags(tags)
+                .createdDate(createdDate)
+                .build();
+    }
+
+    private JsonNode readTree(String json) throws Exception {
+        return objectMapper.readTree(json);
+    }
+}
@@ -0,0 +1,105 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrent HTTP clients on virtual threads sending the same GET, for the benchmarks that boot the whole
+ * application.
+ */
+final class HttpLoad {
+
+    private HttpLoad() {
+    }
+
+    static Result run(URI uri, int concurrency, int requestsPerClient) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).GET().build();
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicInteger errors = new AtomicInteger();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(clients).build()) {
+            // Warm up the JIT and the connection pools before measuring.
+            sendAll(clients, http, request, Math.min(concurrency, 100), 10, new LatencyRecorder(), new AtomicInteger());
+
+            long start = System.nanoTime();
+            sendAll(clients, http, request, concurrency, requestsPerClient, recorder, errors);
+            long elapsed = System.nanoTime() - start;
+            return new Result(recorder, errors.get(), recorder.count() / (elapsed / 1_000_000_000.0));
+        }
+    }
+
+    static List<UUID> seed(NoteRepository noteRepository, int count, String text) {
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notes.add(Note.builder()
+                    .id(UUID.randomUUID())
+                    .title("Load note " + i)
+                    .text(text + " " + i)
+                    .tags(Set.of(NoteTag.values()[i % NoteTag.values().length]))
+                    .createdDate(LocalDateTime.now().minusSeconds(i))
+                    .build());
+        }
+        noteRepository.saveAll(notes);
+        return notes.stream().map(Note::getId).toList();
+    }
+
+    private static void sendAll(
+            ExecutorService clients,
+            HttpClient http,
+            HttpRequest request,
+            int concurrency,
+            int requestsPerClient,
+            LatencyRecorder recorder,
+            AtomicInteger errors
+    ) throws InterruptedException {
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int c = 0; c < concurrency; c++) {
+            futures.add(clients.submit(() -> {
+                for (int i = 0; i < requestsPerClient; i++) {
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    recorder.record(System.nanoTime() - start);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                errors.incrementAndGet();
+            }
+        }
+    }
+
+    record Result(LatencyRecorder latencies, int errors, double throughput) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, errors=%d, %s", throughput, errors, latencies.summary());
+        }
+    }
+}
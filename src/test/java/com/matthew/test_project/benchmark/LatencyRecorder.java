@@ -0,0 +1,69 @@
+package com.matthew.test_project.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Collects per-operation latencies for the benchmark suites and reports percentiles.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    public static LatencyRecorder measure(int warmup, int iterations, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        LatencyRecorder recorder = new LatencyRecorder();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            recorder.record(System.nanoTime() - start);
+        }
+        return recorder;
+    }
+
+    public synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    public synchronized int count() {
+        return count;
+    }
+
+    /**
+     * @param percentile in {@code [0, 100]}
+     */
+    public synchronized long percentileNanos(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    public double percentileMillis(double percentile) {
+        return percentileNanos(percentile) / 1_000_000.0;
+    }
+
+    public synchronized double meanMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return total / (double) count / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("n=%d mean=%.3fms p50=%.3fms p99=%.3fms p999=%.3fms",
+                count(), meanMillis(), percentileMillis(50), percentileMillis(99), percentileMillis(99.9));
+    }
+}
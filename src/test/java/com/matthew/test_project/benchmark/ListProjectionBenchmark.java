@@ -0,0 +1,112 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.dto.NoteListDto;
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.repository.NoteTagFilter;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the list endpoint's old full-document reads with the NoteListDto projections, in bytes
+ * returned by the server and in query latency. Needs a reachable MongoDB:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=ListProjectionBenchmark -Dspring.data.mongodb.uri=mongodb://localhost:27017/testdb
+ * </pre>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ListProjectionBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 5_000);
+    private static final int ITERATIONS = Integer.getInteger("bench.iterations", 500);
+    private static final int PAGE_SIZE = Integer.getInteger("bench.pageSize", 50);
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final List<UUID> seeded = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        String text = "lorem ipsum dolor sit amet ".repeat(40).substring(0, 1000);
+        List<Note> batch = new ArrayList<>();
+        for (int i = 0; i < NOTES; i++) {
+            Note note = Note.builder()
+                    .id(UUID.randomUUID())
+                    .title("Benchmark note " + i)
+                    .text(text)
+                    .tags(i % 2 == 0 ? Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT) : Set.of(NoteTag.PERSONAL))
+                    .createdDate(LocalDateTime.now().minusSeconds(i))
+                    .build();
+            batch.add(note);
+            seeded.add(note.getId());
+        }
+        noteRepository.saveAll(batch);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        noteRepository.deleteAllById(seeded);
+    }
+
+    @Test
+    void listProjection_shouldTransferFewerBytes_andReadFaster() {
+        Pageable pageable = PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdDate"));
+        NoteTagFilter tags = NoteTagFilter.any(Set.of(NoteTag.BUSINESS));
+
+        long fullBytes = pageBytes(null);
+        long projectedBytes = pageBytes(new Document("title", 1).append("createdDate", 1));
+
+        LatencyRecorder full = LatencyRecorder.measure(ITERATIONS / 10, ITERATIONS, () ->
+                noteRepository.findAll(pageable)
+                        .map(note -> new NoteListDto(note.getId(), note.getTitle(), note.getCreatedDate())));
+        LatencyRecorder projected = LatencyRecorder.measure(ITERATIONS / 10, ITERATIONS, () ->
+                noteRepository.findAllBy(pageable));
+        LatencyRecorder projectedByTags = LatencyRecorder.measure(ITERATIONS / 10, ITERATIONS, () ->
+                noteRepository.findPage(tags, pageable));
+
+        System.out.printf("list page of %d, %d notes in collection%n", PAGE_SIZE, NOTES);
+        System.out.printf("  bytes per page: full=%d projected=%d (%.1f%%)%n",
+                fullBytes, projectedBytes, 100.0 * projectedBytes / fullBytes);
+        System.out.println("  full documents:     " + full.summary());
+        System.out.println("  projection:         " + projected.summary());
+        System.out.println("  projection by tags: " + projectedByTags.summary());
+
+        assertThat(projectedBytes).isLessThan(fullBytes);
+    }
+
+    private long pageBytes(Document projection) {
+        long bytes = 0;
+        for (RawBsonDocument document : mongoTemplate.getCollection("testproject")
+                .find(new Document(), RawBsonDocument.class)
+                .projection(projection)
+                .sort(new Document("createdDate", -1))
+                .limit(PAGE_SIZE)) {
+            bytes += document.getByteBuffer().remaining();
+        }
+        return bytes;
+    }
+}
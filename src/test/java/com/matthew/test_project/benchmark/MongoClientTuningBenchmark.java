@@ -0,0 +1,85 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.TestProjectApplication;
+import com.matthew.test_project.repository.NoteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application once per combination of {@code notes.mongo.client.pool.max-size} and
+ * {@code notes.mongo.client.compressors}, drives {@code bench.path} with a burst of concurrent clients on
+ * virtual threads, and reports throughput and latency for each. Compression only pays off on large
+ * responses; the list page is projected, so {@code /api/notes/export} shows it better. Needs a reachable
+ * MongoDB:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=MongoClientTuningBenchmark -Dspring.data.mongodb.uri=mongodb://localhost:27017/testdb
+ * mvn test -Pbenchmark -Dtest=MongoClientTuningBenchmark -Dbench.poolSizes=20,200 -Dbench.compressors=none,zstd \
+ *     -Dbench.path=/api/notes/export?tags=BUSINESS -Dspring.data.mongodb.uri=...
+ * </pre>
+ */
+@Tag("benchmark")
+class MongoClientTuningBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 2_000);
+    private static final int TEXT_LENGTH = Integer.getInteger("bench.textLength", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 400);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("bench.requestsPerClient", 10);
+    private static final String PATH = System.getProperty("bench.path", "/api/notes?size=100");
+    private static final List<String> POOL_SIZES = List.of(System.getProperty("bench.poolSizes", "10,100").split(","));
+    private static final List<String> COMPRESSORS =
+            List.of(System.getProperty("bench.compressors", "none,zlib,snappy,zstd").split(","));
+
+    @Test
+    void mongoClient_poolSizeAndCompression() throws Exception {
+        Map<String, HttpLoad.Result> results = new LinkedHashMap<>();
+        for (String poolSize : POOL_SIZES) {
+            for (String compressor : COMPRESSORS) {
+                results.put("pool=" + poolSize + " compressor=" + compressor, run(poolSize, compressor));
+            }
+        }
+
+        System.out.printf("%d concurrent clients x %d requests, GET %s, %d notes of %d characters%n",
+                CONCURRENCY, REQUESTS_PER_CLIENT, PATH, NOTES, TEXT_LENGTH);
+        results.forEach((setting, result) -> System.out.printf("  %-30s %s%n", setting, result));
+
+        assertThat(results.values()).allMatch(result -> result.errors() == 0);
+    }
+
+    private HttpLoad.Result run(String poolSize, String compressor) throws Exception {
+        // As arguments rather than default properties, which application.properties would override.
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=true",
+                "--notes.mongo.client.pool.max-size=" + poolSize,
+                "--notes.mongo.client.pool.min-size=0",
+                // Queue for a connection as long as it takes, so a small pool shows up as latency, not errors.
+                "--notes.mongo.client.pool.max-wait-time=120s",
+                "--notes.mongo.client.compressors=" + (compressor.equals("none") ? "" : compressor)
+        ));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestProjectApplication.class)
+                .run(args.toArray(String[]::new))) {
+            NoteRepository noteRepository = context.getBean(NoteRepository.class);
+            String text = "tuning benchmark text with enough repeated words to compress ".repeat(TEXT_LENGTH / 60 + 1)
+                    .substring(0, TEXT_LENGTH);
+            List<UUID> seeded = HttpLoad.seed(noteRepository, NOTES, text);
+            try {
+                int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+                return HttpLoad.run(URI.create("http://localhost:" + port + PATH), CONCURRENCY, REQUESTS_PER_CLIENT);
+            } finally {
+                noteRepository.deleteAllById(seeded);
+            }
+        }
+    }
+}
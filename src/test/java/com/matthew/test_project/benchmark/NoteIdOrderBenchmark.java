@@ -0,0 +1,99 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.service.NoteIds;
+import com.mongodb.client.MongoCollection;
+import org.bson.Document;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts {@code bench.documents} note-sized documents into two scratch collections, one keyed by random
+ * UUIDv4 ids and one by {@link NoteIds#timeOrdered()} ids, and reports the insert rate of every tenth of the
+ * run and the size of each {@code _id} index. Random ids touch every page of the index, so their insert rate
+ * falls once the index no longer fits in the server's cache; time-ordered ids only touch its right edge and
+ * leave pages full. Only tens of millions of documents show that on a real server:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=NoteIdOrderBenchmark -Dspring.data.mongodb.uri=mongodb://localhost:27017/testdb
+ * mvn test -Pbenchmark -Dtest=NoteIdOrderBenchmark -Dbench.documents=20000000 -Dspring.data.mongodb.uri=...
+ * </pre>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class NoteIdOrderBenchmark {
+
+    private static final int DOCUMENTS = Integer.getInteger("bench.documents", 1_000_000);
+    private static final int BATCH_SIZE = Integer.getInteger("bench.batchSize", 1_000);
+    private static final int TEXT_LENGTH = Integer.getInteger("bench.textLength", 200);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void noteIds_insertRateAndIndexSize_randomVsTimeOrdered() {
+        String random = run("bench_random_ids", UUID::randomUUID);
+        String timeOrdered = run("bench_time_ordered_ids", NoteIds::timeOrdered);
+
+        System.out.printf("%d documents in batches of %d%n", DOCUMENTS, BATCH_SIZE);
+        System.out.println("  random UUIDv4:       " + random);
+        System.out.println("  time-ordered UUIDv7: " + timeOrdered);
+    }
+
+    private String run(String collectionName, Supplier<UUID> ids) {
+        mongoTemplate.dropCollection(collectionName);
+        MongoCollection<Document> collection = mongoTemplate.getCollection(collectionName);
+        String text = "x".repeat(TEXT_LENGTH);
+        try {
+            List<String> rates = new ArrayList<>();
+            int slice = Math.max(BATCH_SIZE, DOCUMENTS / 10);
+            long sliceStart = System.nanoTime();
+            long start = sliceStart;
+            List<Document> batch = new ArrayList<>(BATCH_SIZE);
+
+            for (int i = 1; i <= DOCUMENTS; i++) {
+                batch.add(new Document("_id", ids.get())
+                        .append("title", "Benchmark note " + i)
+                        .append("text", text)
+                        .append("createdDate", new Date()));
+                if (batch.size() == BATCH_SIZE || i == DOCUMENTS) {
+                    collection.insertMany(batch);
+                    batch.clear();
+                }
+                if (i % slice == 0) {
+                    long now = System.nanoTime();
+                    rates.add(String.format("%.0f", slice / ((now - sliceStart) / 1_000_000_000.0)));
+                    sliceStart = now;
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            assertThat(collection.countDocuments()).isEqualTo(DOCUMENTS);
+
+            return String.format("%.0f inserts/s overall, per tenth %s inserts/s, _id index %s",
+                    DOCUMENTS / seconds, rates, idIndexSize(collectionName));
+        } finally {
+            mongoTemplate.dropCollection(collectionName);
+        }
+    }
+
+    private String idIndexSize(String collectionName) {
+        try {
+            Document stats = mongoTemplate.executeCommand(new Document("collStats", collectionName));
+            Document indexSizes = stats.get("indexSizes", Document.class);
+            Object idIndex = indexSizes != null ? indexSizes.get("_id_") : null;
+            return idIndex != null ? ((Number) idIndex).longValue() / 1024 + " KiB" : "n/a";
+        } catch (RuntimeException e) {
+            // Servers without collStats, such as the in-memory stand-in.
+            return "n/a";
+        }
+    }
+}
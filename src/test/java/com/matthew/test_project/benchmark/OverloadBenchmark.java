@@ -0,0 +1,158 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.TestProjectApplication;
+import com.matthew.test_project.repository.NoteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the application with {@code notes.concurrency-limit.enabled} off and then on, and drives it past its
+ * capacity with a mix of expensive and cheap requests: for every client count in {@code bench.clients}, a
+ * {@code bench.expensiveShare} of the clients keep asking for the word stats of a tag and the rest read single
+ * notes, for {@code bench.seconds}. A client gives up on a response after {@code bench.deadlineMillis} and
+ * waits {@code bench.backoffMillis} after a 503. Reports goodput, the responses that came back 200 within the
+ * deadline per second, for both kinds of request, along with how many were shed or late. Without the limit
+ * goodput falls as clients are added, since the server keeps working on requests their clients have given up
+ * on; with it, goodput should stay about flat. Needs a reachable MongoDB:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=OverloadBenchmark -Dspring.data.mongodb.uri=mongodb://localhost:27017/testdb
+ * mvn test -Pbenchmark -Dtest=OverloadBenchmark -Dbench.clients=50,500,2000 -Dbench.deadlineMillis=500 \
+ *     -Dspring.data.mongodb.uri=...
+ * </pre>
+ */
+@Tag("benchmark")
+class OverloadBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 2_000);
+    private static final int TEXT_LENGTH = Integer.getInteger("bench.textLength", 500);
+    private static final List<String> CLIENTS = List.of(System.getProperty("bench.clients", "16,64,256").split(","));
+    private static final double EXPENSIVE_SHARE = Double.parseDouble(System.getProperty("bench.expensiveShare", "0.25"));
+    private static final Duration RUN_TIME = Duration.ofSeconds(Long.getLong("bench.seconds", 10));
+    private static final Duration DEADLINE = Duration.ofMillis(Long.getLong("bench.deadlineMillis", 1_000));
+    private static final long BACKOFF_MILLIS = Long.getLong("bench.backoffMillis", 100);
+
+    @Test
+    void overload_goodputWithAndWithoutConcurrencyLimit() throws Exception {
+        Map<String, Run> results = new LinkedHashMap<>();
+        for (boolean limited : List.of(false, true)) {
+            // As arguments rather than default properties, which application.properties would override.
+            try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestProjectApplication.class)
+                    .run("--server.port=0", "--notes.concurrency-limit.enabled=" + limited)) {
+                NoteRepository noteRepository = context.getBean(NoteRepository.class);
+                String text = "overload benchmark text with a handful of different words ".repeat(TEXT_LENGTH / 58 + 1)
+                        .substring(0, TEXT_LENGTH);
+                List<UUID> seeded = HttpLoad.seed(noteRepository, NOTES, text);
+                try {
+                    String baseUrl = "http://localhost:"
+                            + context.getEnvironment().getRequiredProperty("local.server.port");
+                    // Warm up the JIT, the connection pools and the limits before measuring.
+                    run(baseUrl, seeded, Integer.parseInt(CLIENTS.get(0).trim()), Duration.ofSeconds(3));
+                    for (String clients : CLIENTS) {
+                        results.put("limit=" + (limited ? "on " : "off") + " clients=" + clients.trim(),
+                                run(baseUrl, seeded, Integer.parseInt(clients.trim()), RUN_TIME));
+                    }
+                } finally {
+                    noteRepository.deleteAllById(seeded);
+                }
+            }
+        }
+
+        System.out.printf("%.0f%% GET /api/notes/word-stats?tags=BUSINESS, the rest GET /api/notes/{id}, "
+                        + "%ds per run, %dms deadline, %d notes%n",
+                EXPENSIVE_SHARE * 100, RUN_TIME.toSeconds(), DEADLINE.toMillis(), NOTES);
+        results.forEach((setting, run) -> {
+            System.out.printf("  %-22s word-stats %s%n", setting, run.expensive().summary(RUN_TIME));
+            System.out.printf("  %-22s note       %s%n", "", run.cheap().summary(RUN_TIME));
+        });
+
+        assertThat(results.values()).allMatch(run -> run.expensive().failed().get() == 0
+                && run.cheap().failed().get() == 0);
+    }
+
+    private static Run run(String baseUrl, List<UUID> ids, int clients, Duration runTime) throws Exception {
+        Run run = new Run(new Outcome(), new Outcome());
+        URI expensive = URI.create(baseUrl + "/api/notes/word-stats?tags=BUSINESS");
+        long end = System.nanoTime() + runTime.toNanos();
+        int expensiveClients = (int) Math.ceil(clients * EXPENSIVE_SHARE);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder().executor(executor).build()) {
+            List<Future<?>> futures = new ArrayList<>(clients);
+            for (int c = 0; c < clients; c++) {
+                boolean isExpensive = c < expensiveClients;
+                futures.add(executor.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        URI uri = isExpensive
+                                ? expensive
+                                : URI.create(baseUrl + "/api/notes/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+                        send(http, uri, isExpensive ? run.expensive() : run.cheap());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return run;
+    }
+
+    private static void send(HttpClient http, URI uri, Outcome outcome) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(DEADLINE).GET().build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+            long elapsed = System.nanoTime() - start;
+            if (response.statusCode() == 503) {
+                outcome.shed().incrementAndGet();
+                Thread.sleep(BACKOFF_MILLIS);
+            } else if (response.statusCode() != 200) {
+                outcome.failed().incrementAndGet();
+            } else if (elapsed > DEADLINE.toNanos()) {
+                outcome.late().incrementAndGet();
+            } else {
+                outcome.good().record(elapsed);
+            }
+        } catch (HttpTimeoutException e) {
+            outcome.late().incrementAndGet();
+        } catch (IOException e) {
+            outcome.failed().incrementAndGet();
+        }
+    }
+
+    private record Run(Outcome expensive, Outcome cheap) {}
+
+    private record Outcome(LatencyRecorder good, AtomicInteger shed, AtomicInteger late, AtomicInteger failed) {
+
+        Outcome() {
+            this(new LatencyRecorder(), new AtomicInteger(), new AtomicInteger(), new AtomicInteger());
+        }
+
+        String summary(Duration runTime) {
+            return String.format("goodput %6.0f/s, shed=%d, late=%d, failed=%d, %s",
+                    good.count() / (double) runTime.toSeconds(), shed.get(), late.get(), failed.get(), good.summary());
+        }
+    }
+}
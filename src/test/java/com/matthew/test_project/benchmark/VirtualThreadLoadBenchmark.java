@@ -0,0 +1,61 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.TestProjectApplication;
+import com.matthew.test_project.repository.NoteRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the slice listing, which blocks on a Mongo query for every request, with far more concurrent
+ * clients than Tomcat has platform threads, once with {@code spring.threads.virtual.enabled=false} and once
+ * with {@code true}, and reports throughput and latency percentiles for both. The benchmark profile runs with
+ * {@code -Djdk.tracePinnedThreads=short}, so any carrier pinned on the request path is printed. Needs a
+ * reachable MongoDB:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=VirtualThreadLoadBenchmark -Dspring.data.mongodb.uri=mongodb://localhost:27017/testdb
+ * </pre>
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmark {
+
+    private static final int NOTES = Integer.getInteger("bench.notes", 2_000);
+    private static final int CONCURRENCY = Integer.getInteger("bench.concurrency", 1_000);
+    private static final int REQUESTS_PER_CLIENT = Integer.getInteger("bench.requestsPerClient", 20);
+
+    @Test
+    void virtualThreads_shouldServeHighConcurrencyLoad() throws Exception {
+        HttpLoad.Result platform = run(false);
+        HttpLoad.Result virtual = run(true);
+
+        System.out.printf("%d concurrent clients x %d requests, GET /api/notes/slice%n", CONCURRENCY, REQUESTS_PER_CLIENT);
+        System.out.println("  platform threads: " + platform);
+        System.out.println("  virtual threads:  " + virtual);
+
+        assertThat(platform.errors()).isZero();
+        assertThat(virtual.errors()).isZero();
+    }
+
+    private HttpLoad.Result run(boolean virtualThreads) throws Exception {
+        // As arguments rather than default properties, which application.properties would override.
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestProjectApplication.class)
+                .run("--server.port=0", "--spring.threads.virtual.enabled=" + virtualThreads)) {
+            NoteRepository noteRepository = context.getBean(NoteRepository.class);
+            List<UUID> seeded = HttpLoad.seed(noteRepository, NOTES, "load benchmark text");
+            try {
+                int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+                return HttpLoad.run(URI.create("http://localhost:" + port + "/api/notes/slice?size=20"),
+                        CONCURRENCY, REQUESTS_PER_CLIENT);
+            } finally {
+                noteRepository.deleteAllById(seeded);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.matthew.test_project.benchmark;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.service.NoteMetrics;
+import com.matthew.test_project.service.NoteWriteBehind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.UnaryOperator;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inserts notes from many concurrent callers, once with a {@code save} per note and once through
+ * {@link NoteWriteBehind} for every batch size in {@code bench.batchSizes}, and reports inserts per second
+ * and per-caller latency for each. Needs a reachable MongoDB:
+ * <pre>
+ * mvn test -Pbenchmark -Dtest=WriteBehindBenchmark -Dspring.data.mongodb.uri=mongodb://localhost:27017/testdb
+ * mvn test -Pbenchmark -Dtest=WriteBehindBenchmark -Dbench.clients=512 -Dbench.batchSizes=50,500 \
+ *     -Dbench.maxDelayMillis=2 -Dspring.data.mongodb.uri=...
+ * </pre>
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class WriteBehindBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 128);
+    private static final int INSERTS_PER_CLIENT = Integer.getInteger("bench.insertsPerClient", 100);
+    private static final List<String> BATCH_SIZES = List.of(System.getProperty("bench.batchSizes", "1,10,50,200").split(","));
+    private static final Duration MAX_DELAY = Duration.ofMillis(Long.getLong("bench.maxDelayMillis", 5));
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Autowired
+    private NoteMetrics noteMetrics;
+
+    private final Queue<UUID> inserted = new ConcurrentLinkedQueue<>();
+
+    @AfterEach
+    void cleanUp() {
+        noteRepository.deleteAllById(inserted);
+    }
+
+    @Test
+    void writeBehind_insertThroughputByBatchSize() throws Exception {
+        Map<String, String> results = new LinkedHashMap<>();
+        results.put("save per note", run(noteRepository::save));
+
+        for (String batchSize : BATCH_SIZES) {
+            NoteWriteBehind writeBehind = new NoteWriteBehind(
+                    noteRepository, noteMetrics, true, Integer.parseInt(batchSize.trim()), MAX_DELAY, CLIENTS * 2);
+            try {
+                results.put("write-behind batch=" + batchSize.trim(), run(writeBehind::insert));
+            } finally {
+                writeBehind.close();
+            }
+        }
+
+        System.out.printf("%d concurrent callers x %d inserts, max delay %dms%n",
+                CLIENTS, INSERTS_PER_CLIENT, MAX_DELAY.toMillis());
+        results.forEach((mode, result) -> System.out.printf("  %-26s %s%n", mode, result));
+
+        assertThat(inserted).hasSize(CLIENTS * INSERTS_PER_CLIENT * (BATCH_SIZES.size() + 1));
+    }
+
+    private String run(UnaryOperator<Note> insert) throws Exception {
+        LatencyRecorder latencies = new LatencyRecorder();
+        long start = System.nanoTime();
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(callers.submit(() -> {
+                    for (int i = 0; i < INSERTS_PER_CLIENT; i++) {
+                        long started = System.nanoTime();
+                        Note saved = insert.apply(note(i));
+                        latencies.record(System.nanoTime() - started);
+                        inserted.add(saved.getId());
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        return String.format("%.0f inserts/s, %s", latencies.count() / seconds, latencies.summary());
+    }
+
+    private static Note note(int i) {
+        LocalDateTime now = LocalDateTime.now();
+        return Note.builder()
+                .id(UUID.randomUUID())
+                .title("Write-behind note " + i)
+                .text("write behind benchmark text ".repeat(10))
+                .tags(Set.of(NoteTag.BUSINESS))
+                .createdDate(now)
+                .lastModified(now)
+                .version(0L)
+                .build();
+    }
+}
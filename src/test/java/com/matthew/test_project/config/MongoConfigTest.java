@@ -0,0 +1,60 @@
+package com.matthew.test_project.config;
+
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoConfigTest {
+
+    @Test
+    void apply_shouldOverrideConnectionStringWithConfiguredProperties() {
+        MongoClientSettings settings = settings(Map.of(
+                "notes.mongo.client.pool.max-size", "200",
+                "notes.mongo.client.pool.max-wait-time", "2s",
+                "notes.mongo.client.read-timeout", "30s",
+                "notes.mongo.client.compressors", "zstd,zlib",
+                "notes.mongo.client.read-preference", "secondaryPreferred"
+        ));
+
+        assertThat(settings.getConnectionPoolSettings().getMaxSize()).isEqualTo(200);
+        assertThat(settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(2_000);
+        // Not configured, so the connection string's value stays.
+        assertThat(settings.getConnectionPoolSettings().getMinSize()).isEqualTo(5);
+        assertThat(settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS)).isEqualTo(30_000);
+        assertThat(settings.getCompressorList()).extracting(MongoCompressor::getName).containsExactly("zstd", "zlib");
+        assertThat(settings.getReadPreference()).isEqualTo(ReadPreference.secondaryPreferred());
+    }
+
+    @Test
+    void databaseName_shouldFollowTheUriUnlessADatabaseIsConfigured() {
+        assertThat(MongoConfig.databaseName(null, "mongodb://localhost:27017/notes")).isEqualTo("notes");
+        assertThat(MongoConfig.databaseName("other", "mongodb://localhost:27017/notes")).isEqualTo("other");
+        assertThat(MongoConfig.databaseName(null, "mongodb://localhost:27017")).isEqualTo("test");
+    }
+
+    @Test
+    void apply_withEmptyCompressors_shouldTurnCompressionOff() {
+        MongoClientSettings settings = settings(Map.of("notes.mongo.client.compressors", ""));
+
+        assertThat(settings.getCompressorList()).isEmpty();
+        assertThat(settings.getConnectionPoolSettings().getMaxSize()).isEqualTo(50);
+    }
+
+    private static MongoClientSettings settings(Map<String, String> properties) {
+        MongoClientProperties bound = new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("notes.mongo.client", MongoClientProperties.class);
+        MongoClientSettings.Builder builder = MongoClientSettings.builder().applyConnectionString(
+                new ConnectionString("mongodb://localhost/testdb?maxPoolSize=50&minPoolSize=5&compressors=snappy"));
+        MongoConfig.apply(bound, builder);
+        return builder.build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.matthew.test_project.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matthew.test_project.dto.NoteDetailDto;
+import com.matthew.test_project.dto.NoteVersionDto;
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.service.NoteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class NoteControllerTest {
+
+    @Test
+    void getNoteById_shouldDescribeTheNoteSentWhenItChangedAfterTheVersionCheck() throws Exception {
+        UUID id = UUID.randomUUID();
+        LocalDateTime checked = LocalDateTime.of(2024, 1, 1, 12, 0);
+        NoteService noteService = mock(NoteService.class);
+        // An edit lands between the version lookup and the read of the note.
+        when(noteService.getVersion(id)).thenReturn(new NoteVersionDto("1", checked));
+        when(noteService.findById(id)).thenReturn(new NoteDetailDto(
+                "Edited", checked.minusDays(1), "text", null, 2L, checked.plusMinutes(1)));
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                new NoteController(noteService, mock(NoteRepository.class), new ObjectMapper().findAndRegisterModules())
+        ).build();
+
+        mockMvc.perform(get("/api/notes/{id}", id).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues(HttpHeaders.ETAG, "\"2\""))
+                .andExpect(jsonPath("$.title").value("Edited"));
+    }
+}
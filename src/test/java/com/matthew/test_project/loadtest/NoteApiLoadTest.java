@@ -0,0 +1,243 @@
+package com.matthew.test_project.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.matthew.test_project.benchmark.LatencyRecorder;
+import com.matthew.test_project.model.NoteTag;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the note API over HTTP with a weighted mix of operations from concurrent clients, reports throughput
+ * and p50/p99/p999 per operation, and fails when an operation's p99 exceeds its budget or any request fails.
+ * Runs against the in-memory MongoDB stand-in unless told otherwise:
+ * <pre>
+ * mvn test -Ploadtest
+ * mvn test -Ploadtest -Dloadtest.requests=50000 -Dloadtest.mix.list=60 -Dloadtest.budget.list=150
+ * mvn test -Ploadtest -Dloadtest.profiles= -Dspring.data.mongodb.uri=mongodb://localhost:27017/testdb
+ * </pre>
+ * Every id is held by at most one client at a time, so a note is never read while another client deletes
+ * it and every non-2xx response counts as an error.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class NoteApiLoadTest {
+
+    private static final int CLIENTS = Integer.getInteger("loadtest.clients", 8);
+    private static final int REQUESTS = Integer.getInteger("loadtest.requests", 10_000);
+    private static final int WARMUP_REQUESTS = Integer.getInteger("loadtest.warmup", 2_000);
+    private static final int SEED_NOTES = Integer.getInteger("loadtest.seed", 1_000);
+
+    /**
+     * Default weight in the mix and default p99 budget in milliseconds, overridable with
+     * {@code -Dloadtest.mix.<name>} and {@code -Dloadtest.budget.<name>}. The budgets leave about twice the
+     * p99 measured against the in-memory stand-in, which serves one command at a time; tighten them when
+     * running against a real server.
+     */
+    enum Operation {
+        CREATE("create", false, 15, 300),
+        LIST("list", false, 25, 600),
+        GET("get", true, 30, 300),
+        UPDATE("update", true, 10, 300),
+        DELETE("delete", true, 5, 300),
+        WORD_STATS("wordStats", true, 15, 300);
+
+        final String key;
+        final boolean needsNote;
+        final int weight;
+        final long p99BudgetMillis;
+
+        Operation(String key, boolean needsNote, int defaultWeight, long defaultBudgetMillis) {
+            this.key = key;
+            this.needsNote = needsNote;
+            this.weight = Integer.getInteger("loadtest.mix." + key, defaultWeight);
+            this.p99BudgetMillis = Long.getLong("loadtest.budget." + key, defaultBudgetMillis);
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final Queue<UUID> ids = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void noteApi_shouldStayWithinLatencyBudgets() throws Exception {
+        seed();
+
+        run(WARMUP_REQUESTS, new EnumMap<>(Operation.class), new AtomicInteger());
+
+        Map<Operation, LatencyRecorder> latencies = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyRecorder());
+        }
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        run(REQUESTS, latencies, errors);
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        System.out.printf("%d requests from %d clients in %.1fs: %.0f req/s, %d errors%n",
+                REQUESTS, CLIENTS, seconds, REQUESTS / seconds, errors.get());
+        latencies.forEach((operation, recorder) -> System.out.printf("  %-10s %.0f req/s, %s, p99 budget %dms%n",
+                operation.key, recorder.count() / seconds, recorder.summary(), operation.p99BudgetMillis));
+
+        assertThat(errors.get()).as("failed requests").isZero();
+        latencies.forEach((operation, recorder) -> assertThat(recorder.percentileMillis(99))
+                .as("%s p99 in ms", operation.key)
+                .isLessThanOrEqualTo(operation.p99BudgetMillis));
+    }
+
+    private void seed() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < SEED_NOTES; i++) {
+            ndjson.append(objectMapper.writeValueAsString(Map.of(
+                    "title", "Load note " + i,
+                    "text", text(i),
+                    "tags", List.of(tag(i).name())
+            ))).append('\n');
+        }
+        HttpResponse<String> response = http.send(
+                request("/api/notes/bulk")
+                        .header("Content-Type", "application/x-ndjson")
+                        .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+
+        for (JsonNode item : objectMapper.readTree(response.body()).get("items")) {
+            ids.add(UUID.fromString(item.get("id").asText()));
+        }
+    }
+
+    private void run(int requests, Map<Operation, LatencyRecorder> latencies, AtomicInteger errors)
+            throws Exception {
+        AtomicInteger remaining = new AtomicInteger(requests);
+        try (ExecutorService clients = Executors.newFixedThreadPool(CLIENTS)) {
+            List<Future<?>> futures = new ArrayList<>(CLIENTS);
+            for (int c = 0; c < CLIENTS; c++) {
+                futures.add(clients.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        Operation operation = pick();
+                        UUID id = operation.needsNote ? ids.poll() : null;
+                        if (operation.needsNote && id == null) {
+                            // Every seeded note has been deleted.
+                            operation = Operation.CREATE;
+                        }
+
+                        long started = System.nanoTime();
+                        boolean ok = execute(operation, id);
+                        long elapsed = System.nanoTime() - started;
+
+                        if (id != null && operation != Operation.DELETE) {
+                            ids.add(id);
+                        }
+
+                        LatencyRecorder recorder = latencies.get(operation);
+                        if (recorder != null) {
+                            recorder.record(elapsed);
+                        }
+                        if (!ok) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    private Operation pick() {
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            total += operation.weight;
+        }
+        int roll = ThreadLocalRandom.current().nextInt(total);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private boolean execute(Operation operation, UUID id) throws Exception {
+        return switch (operation) {
+            case CREATE -> create();
+            case LIST -> list();
+            case GET -> send(request("/api/notes/" + id).GET().build()) == 200;
+            case WORD_STATS -> send(request("/api/notes/" + id + "/word-stats?top=10").GET().build()) == 200;
+            case UPDATE -> send(request("/api/notes/" + id)
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                            "title", "Updated " + id,
+                            "text", text(ThreadLocalRandom.current().nextInt(1000))
+                    ))))
+                    .build()) == 200;
+            case DELETE -> send(request("/api/notes/" + id).DELETE().build()) == 204;
+        };
+    }
+
+    private boolean create() throws Exception {
+        int i = ThreadLocalRandom.current().nextInt(1000);
+        // The detail DTO carries no id, so only the seeded notes are read, updated and deleted.
+        return send(request("/api/notes")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(Map.of(
+                        "title", "Load note " + i,
+                        "text", text(i),
+                        "tags", List.of(tag(i).name())
+                ))))
+                .build()) == 200;
+    }
+
+    private boolean list() throws Exception {
+        NoteTag tag = tag(ThreadLocalRandom.current().nextInt(NoteTag.values().length));
+        return send(request("/api/notes?size=20&tags=" + tag.name()).GET().build()) == 200;
+    }
+
+    private int send(HttpRequest request) throws Exception {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+    }
+
+    private static NoteTag tag(int i) {
+        return NoteTag.values()[i % NoteTag.values().length];
+    }
+
+    private static String text(int i) {
+        return ("Load test note number " + i + " with some repeated words, words and more words. ").repeat(1 + i % 10);
+    }
+}
@@ -0,0 +1,82 @@
+package com.matthew.test_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    void tryAcquire_shouldRejectOnceTheLimitIsInFlight_untilAPermitIsReleased() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 2.0, 600);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+
+        limit.release(FAST);
+        assertThat(limit.inFlight()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void sample_shouldGrowTheLimitWhileLatencyHolds_andCutItWhenLatencyRises() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 2.0, 600);
+        for (int i = 0; i < 50; i++) {
+            limit.sample(FAST, limit.limit());
+        }
+        int grown = limit.limit();
+        assertThat(grown).isGreaterThan(10);
+
+        // Ten times the usual latency: requests are queueing behind the limit.
+        for (int i = 0; i < 30; i++) {
+            limit.sample(FAST * 10, limit.limit());
+        }
+        assertThat(limit.limit()).isLessThan(grown / 2);
+    }
+
+    @Test
+    void sample_shouldRetakeTheBaselineAfterAWindow_whenTheServiceStaysSlower() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 2.0, 100);
+        for (int i = 0; i < 50; i++) {
+            limit.sample(FAST, limit.limit());
+        }
+        for (int i = 0; i < 50; i++) {
+            limit.sample(FAST * 10, limit.limit());
+        }
+        int cut = limit.limit();
+
+        // Once the fast requests have left the window, ten times the latency is the new normal.
+        for (int i = 0; i < 200; i++) {
+            limit.sample(FAST * 10, limit.limit());
+        }
+        assertThat(limit.limit()).isGreaterThan(cut * 2);
+    }
+
+    @Test
+    void sample_shouldStayWithinBounds() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 4, 20, 2.0, 600);
+        for (int i = 0; i < 200; i++) {
+            limit.sample(FAST, limit.limit());
+        }
+        assertThat(limit.limit()).isEqualTo(20);
+
+        for (int i = 0; i < 50; i++) {
+            limit.sample(FAST * 100, limit.limit());
+        }
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void sample_shouldLeaveALimitThatIsBarelyUsedAlone() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 100, 2.0, 600);
+        for (int i = 0; i < 100; i++) {
+            limit.sample(FAST, 1);
+        }
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+}
@@ -0,0 +1,55 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteFilter;
+import com.matthew.test_project.repository.NoteRepository;
+import com.matthew.test_project.repository.NoteTagFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CorpusWordStatsAggregatorTest {
+
+    @Test
+    void aggregate_shouldMatchSequentialCount_acrossBatches() {
+        List<Note> notes = new ArrayList<>();
+        WordFrequencyCounter expected = new WordFrequencyCounter();
+        for (int i = 0; i < 2_500; i++) {
+            String text = "common word" + (i % 37) + " note" + i;
+            expected.add(text);
+            // Mix precomputed stats with notes that still need tokenizing.
+            Note note = i % 3 == 0
+                    ? Note.builder().text(text).build()
+                    : Note.builder().wordStats(WordFrequencyCounter.frequencies(text)).build();
+            notes.add(note);
+        }
+
+        NoteRepository repository = mock(NoteRepository.class);
+        when(repository.streamWordSources(any(), anyInt())).thenAnswer(invocation -> notes.stream());
+
+        CorpusWordStatsAggregator aggregator = new CorpusWordStatsAggregator(repository, new NoteMetrics(new SimpleMeterRegistry()), 300);
+        Map<String, Long> result = aggregator.aggregate(new NoteFilter(NoteTagFilter.NONE_GIVEN, null, null), 10);
+
+        assertThat(result).isEqualTo(expected.top(10));
+        assertThat(result.get("common")).isEqualTo(2_500L);
+    }
+
+    @Test
+    void aggregate_shouldReturnEmpty_whenNothingMatches() {
+        NoteRepository repository = mock(NoteRepository.class);
+        when(repository.streamWordSources(any(), anyInt())).thenAnswer(invocation -> List.<Note>of().stream());
+
+        CorpusWordStatsAggregator aggregator = new CorpusWordStatsAggregator(repository, new NoteMetrics(new SimpleMeterRegistry()), 100);
+
+        assertThat(aggregator.aggregate(new NoteFilter(NoteTagFilter.NONE_GIVEN, null, null), 5)).isEmpty();
+    }
+}
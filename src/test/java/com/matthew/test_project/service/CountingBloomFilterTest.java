@@ -0,0 +1,57 @@
+package com.matthew.test_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountingBloomFilterTest {
+
+    // Seeded so the false-positive assertions are deterministic.
+    private final Random random = new Random(42);
+
+    @Test
+    void mightContain_shouldNeverMissAddedIds() {
+        CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+        List<UUID> ids = randomIds(10_000);
+        ids.forEach(filter::add);
+
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void mightContain_shouldKeepFalsePositivesNearConfiguredRate() {
+        CountingBloomFilter filter = CountingBloomFilter.create(10_000, 0.01);
+        randomIds(10_000).forEach(filter::add);
+
+        long falsePositives = randomIds(10_000).stream().filter(filter::mightContain).count();
+
+        assertThat(falsePositives).isLessThan(300);
+    }
+
+    @Test
+    void remove_shouldForgetIdWithoutAffectingOthers() {
+        CountingBloomFilter filter = CountingBloomFilter.create(1_000, 0.01);
+        List<UUID> ids = randomIds(1_000);
+        ids.forEach(filter::add);
+
+        UUID removed = ids.remove(0);
+        filter.remove(removed);
+        filter.remove(new UUID(random.nextLong(), random.nextLong()));
+
+        assertThat(filter.mightContain(removed)).isFalse();
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    private List<UUID> randomIds(int count) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        return ids;
+    }
+}
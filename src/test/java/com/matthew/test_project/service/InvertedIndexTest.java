@@ -0,0 +1,116 @@
+package com.matthew.test_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    private final InvertedIndex index = new InvertedIndex();
+
+    @Test
+    void search_shouldRankRareAndRepeatedWordsHigher() {
+        UUID rare = UUID.randomUUID();
+        UUID repeated = UUID.randomUUID();
+        UUID common = UUID.randomUUID();
+        index.put(rare, 0, "Quarterly report", "the zebra crossing");
+        index.put(repeated, 0, "Report", "report report the end");
+        index.put(common, 0, "Notes", "the end");
+
+        // "the" is in every note, so it only orders the rest by length: the shorter note ranks higher.
+        assertThat(index.search("zebra the", 10)).extracting(InvertedIndex.Hit::note)
+                .containsExactly(rare, common, repeated);
+        assertThat(index.search("REPORT", 10)).extracting(InvertedIndex.Hit::note)
+                .containsExactly(repeated, rare);
+        assertThat(index.search("missing", 10)).isEmpty();
+        assertThat(index.search("the", 1)).hasSize(1);
+    }
+
+    @Test
+    void put_shouldReplacePreviousWords_andRemoveShouldDropNote() {
+        UUID note = UUID.randomUUID();
+        index.put(note, 0, "Title", "old words");
+        index.put(note, 1, "Title", "new words");
+
+        assertThat(index.search("old", 10)).isEmpty();
+        assertThat(index.search("new", 10)).extracting(InvertedIndex.Hit::note).containsExactly(note);
+
+        index.remove(note);
+        assertThat(index.search("title", 10)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void put_shouldKeepTheNewestVersion_whenPutsArriveOutOfOrder() {
+        UUID note = UUID.randomUUID();
+        index.put(note, 0, "Title", "first words");
+        index.put(note, 2, "Title", "latest words");
+        index.put(note, 1, "Title", "stale words");
+
+        assertThat(index.search("stale", 10)).isEmpty();
+        assertThat(index.search("latest", 10)).extracting(InvertedIndex.Hit::note).containsExactly(note);
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void search_shouldStayCorrectAfterDeadDocumentsAreCompacted() {
+        List<UUID> notes = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            UUID note = UUID.randomUUID();
+            notes.add(note);
+            index.put(note, 0, "note " + i, i % 2 == 0 ? "even" : "odd");
+        }
+        for (int i = 0; i < 2_500; i++) {
+            index.remove(notes.get(i));
+        }
+
+        assertThat(index.size()).isEqualTo(500);
+        assertThat(index.search("even", 1_000)).hasSize(250)
+                .allMatch(hit -> notes.indexOf(hit.note()) >= 2_500 && notes.indexOf(hit.note()) % 2 == 0);
+        assertThat(index.search("note 2999", 1)).extracting(InvertedIndex.Hit::note).containsExactly(notes.get(2_999));
+    }
+
+    @Test
+    void compaction_shouldDropWordsOnlyDeadDocumentsUsed() {
+        List<UUID> notes = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            UUID note = UUID.randomUUID();
+            notes.add(note);
+            index.put(note, 0, "shared", "unique" + i);
+        }
+        // Dead documents outnumber the live ones with the last of these, which compacts the index.
+        for (int i = 0; i < 1_500; i++) {
+            index.remove(notes.get(i));
+        }
+
+        // The unique words of the 1500 live notes and the shared one.
+        assertThat(index.vocabularySize()).isEqualTo(1_501);
+        assertThat(index.search("unique2999", 10)).extracting(InvertedIndex.Hit::note).containsExactly(notes.get(2_999));
+        assertThat(index.search("unique0", 10)).isEmpty();
+        assertThat(index.search("shared", 2_000)).hasSize(1_500);
+    }
+
+    @Test
+    void putUnlessWritten_shouldKeepWritesMadeDuringARebuild() {
+        InvertedIndex rebuilding = InvertedIndex.forRebuild();
+        UUID updated = UUID.randomUUID();
+        UUID deleted = UUID.randomUUID();
+        UUID untouched = UUID.randomUUID();
+        rebuilding.put(updated, 1, "Title", "newer text");
+        rebuilding.remove(deleted);
+
+        rebuilding.putUnlessWritten(updated, 0, "Title", "older text");
+        rebuilding.putUnlessWritten(deleted, 0, "Title", "deleted text");
+        rebuilding.putUnlessWritten(untouched, 0, "Title", "snapshot text");
+        rebuilding.rebuilt();
+
+        assertThat(rebuilding.search("older", 10)).isEmpty();
+        assertThat(rebuilding.search("newer", 10)).extracting(InvertedIndex.Hit::note).containsExactly(updated);
+        assertThat(rebuilding.search("deleted", 10)).isEmpty();
+        assertThat(rebuilding.search("snapshot", 10)).extracting(InvertedIndex.Hit::note).containsExactly(untouched);
+    }
+}
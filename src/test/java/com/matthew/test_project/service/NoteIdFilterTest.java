@@ -0,0 +1,49 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteRepository;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NoteIdFilterTest {
+
+    @Test
+    void rebuild_shouldKeepNotesSavedWhileItRuns() {
+        UUID stored = UUID.randomUUID();
+        UUID savedDuringRebuild = UUID.randomUUID();
+        NoteRepository repository = mock(NoteRepository.class);
+        NoteIdFilter filter = new NoteIdFilter(repository, true, 1000, 0.01);
+        when(repository.streamAllIds(anyInt())).thenAnswer(invocation -> Stream.of(stored)
+                .peek(id -> filter.onAfterSave(saved(savedDuringRebuild))));
+
+        filter.rebuild();
+        filter.onAfterSave(saved(UUID.randomUUID()));
+
+        assertThat(filter.mightExist(stored)).isTrue();
+        assertThat(filter.mightExist(savedDuringRebuild)).isTrue();
+    }
+
+    @Test
+    void mightExist_shouldReportEveryIdWhenDisabled() {
+        NoteRepository repository = mock(NoteRepository.class);
+        NoteIdFilter filter = new NoteIdFilter(repository, false, 1000, 0.01);
+
+        filter.rebuild();
+
+        assertThat(filter.mightExist(UUID.randomUUID())).isTrue();
+    }
+
+    private static AfterSaveEvent<Note> saved(UUID id) {
+        Note note = Note.builder().id(id).title("Title").text("Text").build();
+        return new AfterSaveEvent<>(note, new Document(), "notes");
+    }
+}
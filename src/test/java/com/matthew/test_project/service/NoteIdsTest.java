@@ -0,0 +1,49 @@
+package com.matthew.test_project.service;
+
+import org.bson.BsonBinary;
+import org.bson.UuidRepresentation;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NoteIdsTest {
+
+    @Test
+    void timeOrdered_shouldBeVersion7_andCarryTheCreationTime() {
+        // Ahead of every id issued so far, which the generator never goes below.
+        long now = NoteIds.epochMillis(NoteIds.timeOrdered()) + 60_000;
+        UUID id = NoteIds.timeOrdered(now);
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(NoteIds.epochMillis(id)).isEqualTo(now);
+        assertThatThrownBy(() -> NoteIds.epochMillis(UUID.randomUUID())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void timeOrdered_shouldIncreaseInStoredByteOrder_evenWithinOneMillisecond() {
+        long millis = NoteIds.epochMillis(NoteIds.timeOrdered()) + 60_000;
+        List<UUID> ids = new ArrayList<>();
+        // More ids than the counter holds, so some borrow the next millisecond.
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(NoteIds.timeOrdered(millis));
+        }
+        ids.add(NoteIds.timeOrdered(millis - 1_000));
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Arrays.compareUnsigned(stored(ids.get(i - 1)), stored(ids.get(i)))).isNegative();
+        }
+        assertThat(NoteIds.epochMillis(ids.get(0))).isEqualTo(millis);
+        assertThat(NoteIds.epochMillis(ids.get(ids.size() - 1))).isEqualTo(millis + 2);
+    }
+
+    private static byte[] stored(UUID id) {
+        return new BsonBinary(id, UuidRepresentation.STANDARD).getData();
+    }
+}
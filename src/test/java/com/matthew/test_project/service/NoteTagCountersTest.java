@@ -0,0 +1,82 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.dto.NoteTagFacetsDto;
+import com.matthew.test_project.model.NoteTag;
+import com.matthew.test_project.repository.NoteTagCountStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NoteTagCountersTest {
+
+    @Test
+    void flush_shouldPersistOnlyTheChangesSinceTheLastFlush() {
+        NoteTagCountStore store = mock(NoteTagCountStore.class);
+        NoteTagCounters counters = new NoteTagCounters(store);
+
+        counters.created(Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT));
+        counters.created(Set.of());
+        counters.updated(Set.of(NoteTag.BUSINESS, NoteTag.IMPORTANT), Set.of(NoteTag.PERSONAL));
+
+        NoteTagFacetsDto stored = facets(0, 0, 1, 1, 2);
+        when(store.increment(any())).thenReturn(stored);
+        counters.flush();
+
+        verify(store).increment(facets(0, 0, 1, 1, 2));
+        assertThat(counters.facets()).isEqualTo(stored);
+
+        // Nothing changed since, so nothing to write; a delete afterwards only adds to the persisted counts.
+        counters.flush();
+        verify(store, never()).increment(facets(0, 0, 0, 0, 0));
+        counters.deleted(Set.of());
+        assertThat(counters.facets()).isEqualTo(facets(0, 0, 1, 0, 1));
+    }
+
+    @Test
+    void flush_shouldKeepTheChangesPending_whenTheStoreFails() {
+        NoteTagCountStore store = mock(NoteTagCountStore.class);
+        NoteTagCounters counters = new NoteTagCounters(store);
+        counters.created(Set.of(NoteTag.PERSONAL));
+        when(store.increment(any())).thenThrow(new IllegalStateException("down"));
+
+        counters.flush();
+
+        assertThat(counters.facets()).isEqualTo(facets(0, 0, 1, 0, 1));
+    }
+
+    @Test
+    void facets_shouldNotCountChangesTwiceWhileTheyAreFlushed() {
+        NoteTagCountStore store = mock(NoteTagCountStore.class);
+        NoteTagCounters counters = new NoteTagCounters(store);
+        counters.created(Set.of(NoteTag.PERSONAL));
+        List<NoteTagFacetsDto> duringFlush = new ArrayList<>();
+        when(store.increment(any())).thenAnswer(invocation -> {
+            duringFlush.add(counters.facets());
+            return facets(0, 0, 1, 0, 1);
+        });
+
+        counters.flush();
+
+        assertThat(duringFlush).singleElement().satisfies(read -> assertThat(read.total()).isLessThanOrEqualTo(1));
+        assertThat(counters.facets()).isEqualTo(facets(0, 0, 1, 0, 1));
+    }
+
+    private static NoteTagFacetsDto facets(long business, long important, long personal, long untagged, long total) {
+        Map<NoteTag, Long> tags = new EnumMap<>(NoteTag.class);
+        tags.put(NoteTag.BUSINESS, business);
+        tags.put(NoteTag.PERSONAL, personal);
+        tags.put(NoteTag.IMPORTANT, important);
+        return new NoteTagFacetsDto(tags, untagged, total);
+    }
+}
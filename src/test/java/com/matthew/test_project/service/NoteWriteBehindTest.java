@@ -0,0 +1,87 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.model.Note;
+import com.matthew.test_project.repository.NoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class NoteWriteBehindTest {
+
+    @Test
+    void insert_shouldGroupConcurrentCreatesIntoBatches() throws Exception {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch firstBatchStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirstBatch = new CountDownLatch(1);
+        NoteRepository repository = mock(NoteRepository.class);
+        when(repository.insertUnordered(anyList())).thenAnswer(invocation -> {
+            batchSizes.add(invocation.<List<Note>>getArgument(0).size());
+            firstBatchStarted.countDown();
+            // Hold the first write so the other callers pile up behind it.
+            releaseFirstBatch.await(5, TimeUnit.SECONDS);
+            return Map.of();
+        });
+
+        NoteWriteBehind writeBehind = writeBehind(repository, 10);
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Note>> results = new ArrayList<>();
+            results.add(callers.submit(() -> writeBehind.insert(note())));
+            assertThat(firstBatchStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 20; i++) {
+                results.add(callers.submit(() -> writeBehind.insert(note())));
+            }
+            Thread.sleep(200);
+            releaseFirstBatch.countDown();
+
+            for (Future<Note> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getId()).isNotNull();
+            }
+        } finally {
+            writeBehind.close();
+        }
+
+        assertThat(batchSizes).containsExactly(1, 10, 10);
+    }
+
+    @Test
+    void insert_shouldFailOnlyTheCallersWhoseNotesWereRejected() throws Exception {
+        NoteRepository repository = mock(NoteRepository.class);
+        when(repository.insertUnordered(anyList())).thenReturn(Map.of(0, "E11000 duplicate key"));
+
+        NoteWriteBehind writeBehind = writeBehind(repository, 1);
+        try {
+            assertThatThrownBy(() -> writeBehind.insert(note()))
+                    .isInstanceOf(DataIntegrityViolationException.class)
+                    .hasMessageContaining("duplicate key");
+        } finally {
+            writeBehind.close();
+        }
+    }
+
+    private static NoteWriteBehind writeBehind(NoteRepository repository, int batchSize) {
+        return new NoteWriteBehind(
+                repository, new NoteMetrics(new SimpleMeterRegistry()), true, batchSize, Duration.ofMillis(50), 100);
+    }
+
+    private static Note note() {
+        return Note.builder().id(UUID.randomUUID()).title("Title").text("Text").build();
+    }
+}
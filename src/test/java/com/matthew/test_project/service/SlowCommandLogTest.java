@@ -0,0 +1,106 @@
+package com.matthew.test_project.service;
+
+import com.matthew.test_project.dto.SlowCommandDto;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonBoolean;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowCommandLogTest {
+
+    private static final ConnectionDescription CONNECTION =
+            new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    @Test
+    void recent_shouldKeepOnlySlowCommands_newestFirst_andOverwriteOldest() {
+        SlowCommandLog log = new SlowCommandLog(Duration.ofMillis(100), 3);
+
+        run(log, 1, 150);
+        run(log, 2, 50);
+        run(log, 3, 200);
+        run(log, 4, 300);
+        run(log, 5, 400);
+
+        List<SlowCommandDto> recent = log.recent();
+        assertThat(recent).extracting(SlowCommandDto::durationMillis).containsExactly(400.0, 300.0, 200.0);
+        assertThat(recent).allMatch(entry -> entry.commandName().equals("find") && entry.database().equals("testdb"));
+        assertThat(recent.get(0).command()).isEqualTo(BsonDocument.parse("{\"find\": \"notes\", \"filter\": {\"_id\": \"?\"}}").toJson());
+        // The outermost frame in the service package issued the command.
+        assertThat(recent.get(0).calledFrom())
+                .isEqualTo("SlowCommandLogTest.recent_shouldKeepOnlySlowCommands_newestFirst_andOverwriteOldest");
+    }
+
+    @Test
+    void shape_shouldRedactValues_andDropDriverFields() {
+        BsonDocument command = BsonDocument.parse("""
+                {"find": "notes",
+                 "filter": {"tags": {"$in": ["BUSINESS", "PERSONAL", "IMPORTANT"]}, "title": "secret"},
+                 "limit": 20,
+                 "lsid": {"id": 1},
+                 "$db": "testdb"}
+                """);
+
+        assertThat(SlowCommandLog.shape(command)).isEqualTo(BsonDocument.parse("""
+                {"find": "notes",
+                 "filter": {"tags": {"$in": ["?", "+2 more"]}, "title": "?"},
+                 "limit": "?"}
+                """));
+    }
+
+    @Test
+    void commandStarted_shouldKeepOneDocumentOfALargeInsert() {
+        SlowCommandLog log = new SlowCommandLog(Duration.ofMillis(100), 3);
+        List<BsonValue> documents = new ArrayList<>();
+        documents.add(BsonDocument.parse("{\"_id\": 1, \"title\": \"First\", \"tags\": 3}"));
+        for (int i = 0; i < 9_999; i++) {
+            // Reading any of these would copy the batch; the shape must skip them.
+            documents.add(new BsonDocument() {
+                @Override
+                public Set<Map.Entry<String, BsonValue>> entrySet() {
+                    throw new AssertionError("Document past the first one was read");
+                }
+            });
+        }
+        BsonDocument command = new BsonDocument("insert", new BsonString("notes"))
+                .append("ordered", BsonBoolean.FALSE)
+                .append("$db", new BsonString("testdb"))
+                .append("documents", new BsonArray(documents));
+
+        log.commandStarted(new CommandStartedEvent(null, 1, 7, CONNECTION, "testdb", "insert", command));
+        log.commandSucceeded(new CommandSucceededEvent(
+                null, 1, 7, CONNECTION, "testdb", "insert", new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(150)));
+
+        assertThat(log.recent()).singleElement().satisfies(entry -> assertThat(entry.command()).isEqualTo(
+                BsonDocument.parse("""
+                        {"insert": "notes",
+                         "ordered": "?",
+                         "documents": [{"_id": "?", "title": "?", "tags": "?"}, "+9999 more"]}
+                        """).toJson()));
+    }
+
+    private static void run(SlowCommandLog log, int requestId, long millis) {
+        BsonDocument command = BsonDocument.parse("{\"find\": \"notes\", \"filter\": {\"_id\": 1}}");
+        log.commandStarted(new CommandStartedEvent(
+                null, 1, requestId, CONNECTION, "testdb", "find", command));
+        log.commandSucceeded(new CommandSucceededEvent(
+                null, 1, requestId, CONNECTION, "testdb", "find", new BsonDocument(),
+                TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+}
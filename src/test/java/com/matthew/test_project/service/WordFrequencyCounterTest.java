@@ -0,0 +1,112 @@
+package com.matthew.test_project.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WordFrequencyCounterTest {
+
+    @Test
+    void frequencies_shouldMatchLegacyImplementation() {
+        List<String> samples = List.of(
+                "Note is just a note",
+                "",
+                "   \t\n ",
+                "Hello, hello!!! HELLO? world-wide web... 42 42 x42",
+                "Привет мир, ПРИВЕТ Ёжик ёжик; ежик",
+                "mixed: café naïve straße über — tab\tseparated\nlines\r\nand_underscores",
+                "digits 1 2 3 1 2 1 and symbols #@$%^&*() {braces} [brackets]",
+                "Kelvin sign K and dotted İstanbul"
+        );
+
+        for (String sample : samples) {
+            assertThat(WordFrequencyCounter.frequencies(sample))
+                    .as(sample)
+                    .isEqualTo(legacyFrequencies(sample));
+        }
+    }
+
+    @Test
+    void frequencies_shouldMatchLegacyImplementation_onRandomText() {
+        Random random = new Random(42);
+        String alphabet = "abcABCабвАБВёЁ019 ,.!?-\t\n_'\"";
+
+        for (int round = 0; round < 200; round++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(1000);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            assertThat(WordFrequencyCounter.frequencies(text.toString()))
+                    .isEqualTo(legacyFrequencies(text.toString()));
+        }
+    }
+
+    @Test
+    void frequencies_shouldOrderByCountDescThenFirstOccurrence() {
+        Map<String, Long> result = WordFrequencyCounter.frequencies("b a c a b a d");
+
+        assertThat(new ArrayList<>(result.keySet())).containsExactly("a", "b", "c", "d");
+        assertThat(new ArrayList<>(result.values())).containsExactly(3L, 2L, 1L, 1L);
+    }
+
+    @Test
+    void top_shouldReturnOnlyMostFrequentWords() {
+        WordFrequencyCounter counter = new WordFrequencyCounter()
+                .add("one two two three three three four four four four five");
+
+        Map<String, Long> top = counter.top(2);
+
+        assertThat(new ArrayList<>(top.keySet())).containsExactly("four", "three");
+        assertThat(counter.top(100)).isEqualTo(counter.toSortedMap());
+        assertThat(counter.top(0)).isEmpty();
+    }
+
+    @Test
+    void merge_shouldSumCounts() {
+        WordFrequencyCounter first = new WordFrequencyCounter().add("alpha beta beta");
+        WordFrequencyCounter second = new WordFrequencyCounter().add("beta gamma");
+
+        first.merge(second);
+
+        assertThat(first.count("alpha")).isEqualTo(1);
+        assertThat(first.count("beta")).isEqualTo(3);
+        assertThat(first.count("gamma")).isEqualTo(1);
+        assertThat(first.count("delta")).isZero();
+    }
+
+    @Test
+    void add_shouldHandleManyDistinctWords() {
+        WordFrequencyCounter counter = new WordFrequencyCounter();
+        for (int i = 0; i < 10_000; i++) {
+            counter.add("w" + i + " w" + (i % 10));
+        }
+
+        assertThat(counter.size()).isEqualTo(10_000);
+        assertThat(counter.count("w7")).isEqualTo(1001);
+        assertThat(counter.count("w9999")).isEqualTo(1);
+    }
+
+    private static Map<String, Long> legacyFrequencies(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        String cleaned = text.toLowerCase(Locale.ROOT)
+                .replaceAll("[^a-zа-яё0-9\\s]", " ")
+                .replaceAll("\\s+", " ")
+                .trim();
+
+        Map<String, Long> frequency = new HashMap<>();
+        // The old code split "" into a single empty word for punctuation-only text; that was a bug.
+        if (cleaned.isEmpty()) {
+            return frequency;
+        }
+        for (String word : cleaned.split("\\s+")) {
+            frequency.merge(word, 1L, Long::sum);
+        }
+        return frequency;
+    }
+}
@@ -0,0 +1,51 @@
+package com.matthew.test_project.support;
+
+import de.bwaldvogel.mongo.MongoServer;
+import de.bwaldvogel.mongo.backend.memory.MemoryBackend;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.Profiles;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+/**
+ * With the {@code embedded-mongo} profile active, starts an in-memory MongoDB stand-in on a free port and
+ * points {@code spring.data.mongodb.uri} at it, so tests run without a database server. The profile is
+ * included rather than activated so that it adds to a test's {@code @ActiveProfiles}:
+ * <pre>
+ * mvn test -Dspring.profiles.include=embedded-mongo
+ * </pre>
+ * One server is shared by every application context in the JVM. It speaks the wire protocol but implements
+ * only part of the query language, e.g. no {@code $$REMOVE}, so it is a stand-in for load and functional
+ * tests, not for MongoDB itself.
+ */
+public class EmbeddedMongoEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    public static final String PROFILE = "embedded-mongo";
+
+    private static MongoServer server;
+    private static String uri;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.acceptsProfiles(Profiles.of(PROFILE))) {
+            return;
+        }
+        environment.getPropertySources().addFirst(
+                new MapPropertySource("embeddedMongo", Map.of("spring.data.mongodb.uri", startServer()))
+        );
+    }
+
+    private static synchronized String startServer() {
+        if (server == null) {
+            server = new MongoServer(new MemoryBackend());
+            InetSocketAddress address = server.bind();
+            uri = "mongodb://" + address.getHostString() + ":" + address.getPort() + "/testdb";
+            Runtime.getRuntime().addShutdownHook(new Thread(server::shutdownNow, "embedded-mongo-shutdown"));
+        }
+        return uri;
+    }
+}